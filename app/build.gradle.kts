@@ -1,3 +1,7 @@
+import java.awt.RenderingHints
+import java.awt.image.BufferedImage
+import javax.imageio.ImageIO
+
 plugins {
     alias(libs.plugins.android.application)
 }
@@ -31,8 +35,155 @@ android {
     }
 }
 
+// Empaqueta los sprites de src/main/sprites en un único atlas (res/drawable/sprite_atlas.png)
+// y genera SpriteAtlas.java con el rectángulo de cada sprite, en el orden de SpriteCache.
+// Opcionalmente crea variantes preescaladas por densidad, p. ej.
+//   ./gradlew assembleDebug -Pviperx.atlasDensities=hdpi:1.5,xhdpi:2,xxhdpi:3
+abstract class GenerateSpriteAtlas : DefaultTask() {
+
+    @get:InputDirectory
+    @get:PathSensitive(PathSensitivity.RELATIVE)
+    abstract val spriteDir: DirectoryProperty
+
+    // Nombres sin extensión, en el orden de los índices de SpriteCache
+    @get:Input
+    abstract val sprites: ListProperty<String>
+
+    // Sprites que se escalan con filtro (la comida); el resto, por vecino más cercano
+    @get:Input
+    abstract val filteredSprites: SetProperty<String>
+
+    // Carpeta de densidad -> factor sobre el atlas base
+    @get:Input
+    abstract val densities: MapProperty<String, Float>
+
+    @get:Input
+    abstract val packageName: Property<String>
+
+    @get:OutputDirectory
+    abstract val outputRes: DirectoryProperty
+
+    @get:OutputDirectory
+    abstract val outputJava: DirectoryProperty
+
+    @TaskAction
+    fun generate() {
+        val padding = 2
+        val names = sprites.get()
+        val images = names.map { ImageIO.read(spriteDir.file("$it.png").get().asFile) }
+
+        // Estanterías: de mayor a menor altura, con un margen transparente para que el filtrado
+        // no mezcle sprites vecinos. El ancho es múltiplo de 8 para que las variantes sean exactas.
+        val area = images.sumOf { (it.width + padding) * (it.height + padding) }
+        val widest = images.maxOf { it.width } + 2 * padding
+        val width = roundUp8(maxOf(widest, Math.ceil(Math.sqrt(area.toDouble())).toInt() + padding))
+        val rects = Array(images.size) { IntArray(4) }
+        var x = padding
+        var y = padding
+        var shelf = 0
+        for (i in images.indices.sortedByDescending { images[it].height }) {
+            val image = images[i]
+            if (x + image.width + padding > width) {
+                x = padding
+                y += shelf + padding
+                shelf = 0
+            }
+            rects[i] = intArrayOf(x, y, x + image.width, y + image.height)
+            x += image.width + padding
+            shelf = maxOf(shelf, image.height)
+        }
+        val height = roundUp8(y + shelf + padding)
+
+        val resDir = outputRes.get().asFile
+        resDir.deleteRecursively()
+        render(images, names, rects, width, height, 1f, File(resDir, "drawable"))
+        for ((bucket, factor) in densities.get()) {
+            render(images, names, rects, width, height, factor, File(resDir, "drawable-$bucket"))
+        }
+
+        val pkg = packageName.get()
+        val javaDir = outputJava.get().asFile
+        javaDir.deleteRecursively()
+        val javaFile = File(javaDir, pkg.replace('.', '/') + "/SpriteAtlas.java")
+        javaFile.parentFile.mkdirs()
+        javaFile.writeText(buildString {
+            appendLine("package $pkg;")
+            appendLine()
+            appendLine("// Generado por la tarea generateSpriteAtlas de app/build.gradle.kts. No editar.")
+            appendLine("public final class SpriteAtlas {")
+            appendLine()
+            appendLine("    // Tamaño del atlas base; las variantes por densidad son el mismo atlas escalado")
+            appendLine("    public static final int WIDTH = $width, HEIGHT = $height;")
+            appendLine()
+            appendLine("    // left, top, right, bottom de cada sprite en el atlas base, en el orden de SpriteCache")
+            appendLine("    public static final int[] RECTS = {")
+            for (i in rects.indices) {
+                val r = rects[i]
+                appendLine("            ${r[0]}, ${r[1]}, ${r[2]}, ${r[3]}, // ${names[i]}")
+            }
+            appendLine("    };")
+            appendLine()
+            appendLine("    private SpriteAtlas() {}")
+            appendLine("}")
+        })
+        logger.lifecycle("Sprite atlas ${width}x$height with ${images.size} sprites, densities ${densities.get().keys}")
+    }
+
+    // Cada sprite se escala por separado a su rectángulo redondeado, igual que lo calcula la app
+    private fun render(images: List<BufferedImage>, names: List<String>, rects: Array<IntArray>,
+                       width: Int, height: Int, factor: Float, dir: File) {
+        val atlas = BufferedImage(Math.round(width * factor), Math.round(height * factor), BufferedImage.TYPE_INT_ARGB)
+        val g = atlas.createGraphics()
+        for (i in images.indices) {
+            val r = rects[i]
+            val left = Math.round(r[0] * factor)
+            val top = Math.round(r[1] * factor)
+            val right = Math.round(r[2] * factor)
+            val bottom = Math.round(r[3] * factor)
+            g.setRenderingHint(RenderingHints.KEY_INTERPOLATION,
+                if (names[i] in filteredSprites.get()) RenderingHints.VALUE_INTERPOLATION_BICUBIC
+                else RenderingHints.VALUE_INTERPOLATION_NEAREST_NEIGHBOR)
+            g.drawImage(images[i], left, top, right - left, bottom - top, null)
+        }
+        g.dispose()
+        dir.mkdirs()
+        ImageIO.write(atlas, "png", File(dir, "sprite_atlas.png"))
+    }
+
+    private fun roundUp8(value: Int) = (value + 7) / 8 * 8
+}
+
+val generateSpriteAtlas = tasks.register<GenerateSpriteAtlas>("generateSpriteAtlas") {
+    spriteDir.set(layout.projectDirectory.dir("src/main/sprites"))
+    sprites.set(listOf(
+        "head_up", "head_down", "head_left", "head_right",
+        "body_vertical", "body_horizontal", "body_topleft",
+        "body_topright", "body_bottomleft", "body_bottomright",
+        "tail_up", "tail_down", "tail_left", "tail_right",
+        "apple", "candy", "sushi1", "sushi2"
+    ))
+    filteredSprites.set(setOf("apple", "candy", "sushi1", "sushi2"))
+    densities.set(providers.gradleProperty("viperx.atlasDensities").map { value ->
+        value.split(',').filter { it.isNotBlank() }.associate { entry ->
+            val (bucket, factor) = entry.trim().split(':')
+            bucket to factor.toFloat()
+        }
+    }.orElse(emptyMap()))
+    packageName.set(android.namespace)
+    outputRes.set(layout.buildDirectory.dir("generated/spriteAtlas/res"))
+    outputJava.set(layout.buildDirectory.dir("generated/spriteAtlas/java"))
+}
+
+androidComponents {
+    onVariants { variant ->
+        variant.sources.res?.addGeneratedSourceDirectory(generateSpriteAtlas, GenerateSpriteAtlas::outputRes)
+        variant.sources.java?.addGeneratedSourceDirectory(generateSpriteAtlas, GenerateSpriteAtlas::outputJava)
+    }
+}
+
 dependencies {
 
+    implementation(project(":engine"))
     implementation(libs.appcompat)
     implementation(libs.material)
     implementation(libs.activity)
@@ -40,4 +191,4 @@ dependencies {
     testImplementation(libs.junit)
     androidTestImplementation(libs.ext.junit)
     androidTestImplementation(libs.espresso.core)
-}
\ No newline at end of file
+}
@@ -0,0 +1,118 @@
+package es.nellagames.viperx;
+
+import android.app.Instrumentation;
+import android.content.Context;
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Rect;
+import android.os.Debug;
+import android.os.SystemClock;
+import android.view.View;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Renderiza frames como GameThread (beginFrame y drawFrame con el lock del holder) sobre
+ * instantáneas publicadas por la simulación y con los sprites cargados, y comprueba que, tras el
+ * calentamiento, el render no crea ningún objeto. Los ticks quedan fuera de la cuenta.
+ */
+@RunWith(AndroidJUnit4.class)
+public class GameViewAllocationTest {
+    private static final int WIDTH = 1080, HEIGHT = 1920;
+    private static final int WARMUP_FRAMES = 5;
+    // La serpiente empieza en x = 4 de un tablero de 10: cuatro ticks no llegan a la pared
+    private static final int MEASURED_TICKS = 3;
+    private static final int FRAMES_PER_TICK = 40;
+    private static final long SPRITE_TIMEOUT_MS = 10_000;
+
+    @Test
+    public void renderIsAllocationFreeWhilePlaying() {
+        GameView view = createViewWithSprites();
+        InstrumentationRegistry.getInstrumentation().runOnMainSync(() ->
+                assertEquals(0, countRenderAllocations(view, false)));
+    }
+
+    @Test
+    public void renderIsAllocationFreeOnGameOver() {
+        GameView view = createViewWithSprites();
+        InstrumentationRegistry.getInstrumentation().runOnMainSync(() -> {
+            // La serpiente avanza hacia la derecha hasta chocar con la pared
+            for (int i = 0; i < 50; i++) view.update();
+            assertTrue(view.isPublishedGameOver());
+            assertEquals(0, countRenderAllocations(view, true));
+        });
+    }
+
+    // Vista medida y colocada, sin superficie (no arrancan los hilos), con los sprites ya cargados
+    private GameView createViewWithSprites() {
+        Instrumentation instrumentation = InstrumentationRegistry.getInstrumentation();
+        GameView[] created = new GameView[1];
+        instrumentation.runOnMainSync(() -> {
+            Context context = instrumentation.getTargetContext();
+            GameView view = new GameView(context);
+            view.measure(View.MeasureSpec.makeMeasureSpec(WIDTH, View.MeasureSpec.EXACTLY),
+                    View.MeasureSpec.makeMeasureSpec(HEIGHT, View.MeasureSpec.EXACTLY));
+            view.layout(0, 0, WIDTH, HEIGHT);
+            view.preloadAssets();
+            created[0] = view;
+        });
+        // Los sprites llegan en un post al hilo principal
+        boolean[] loaded = new boolean[1];
+        long deadline = SystemClock.uptimeMillis() + SPRITE_TIMEOUT_MS;
+        while (true) {
+            instrumentation.runOnMainSync(() -> loaded[0] = created[0].hasLoadedSprites());
+            if (loaded[0]) return created[0];
+            assertTrue("Sprites not loaded", SystemClock.uptimeMillis() < deadline);
+            SystemClock.sleep(20);
+        }
+    }
+
+    // update() hace de hilo de simulación: publica una instantánea por tick. Solo se cuentan los
+    // frames dibujados entre ticks. Comprueba también lo que la medida da por supuesto: que la
+    // partida sigue (o no) en el estado esperado y que de verdad se dibujó algo
+    @SuppressWarnings("deprecation")
+    private int countRenderAllocations(GameView view, boolean gameOver) {
+        Canvas canvas = new Canvas(Bitmap.createBitmap(WIDTH, HEIGHT, Bitmap.Config.ARGB_8888));
+        Rect dirty = new Rect();
+        view.update();
+        assertEquals(gameOver, view.isPublishedGameOver());
+        for (int i = 0; i < WARMUP_FRAMES; i++) renderFrame(view, canvas, dirty, i / (float) WARMUP_FRAMES);
+
+        int allocations = 0;
+        Debug.startAllocCounting();
+        for (int tick = 0; tick < MEASURED_TICKS; tick++) {
+            view.update();
+            assertEquals(gameOver, view.isPublishedGameOver());
+            int drawn = 0;
+            Debug.resetThreadAllocCount();
+            for (int i = 0; i < FRAMES_PER_TICK; i++) {
+                if (renderFrame(view, canvas, dirty, i / (float) FRAMES_PER_TICK)) drawn++;
+            }
+            allocations += Debug.getThreadAllocCount();
+            assertTrue("No frame drawn after tick " + tick, drawn > 0);
+        }
+        Debug.stopAllocCounting();
+        return allocations;
+    }
+
+    // Como un frame de GameThread: sin región sucia no se dibuja, y con región parcial se recorta.
+    // Devuelve si dibujó
+    private static boolean renderFrame(GameView view, Canvas canvas, Rect dirty, float interpolation) {
+        synchronized (view.getHolder()) {
+            boolean partial = view.beginFrame(dirty);
+            if (partial && dirty.isEmpty()) return false;
+            canvas.save();
+            if (partial) canvas.clipRect(dirty);
+            view.drawFrame(canvas, interpolation);
+            canvas.restore();
+            return true;
+        }
+    }
+}
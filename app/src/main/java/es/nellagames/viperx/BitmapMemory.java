@@ -0,0 +1,50 @@
+package es.nellagames.viperx;
+
+import android.graphics.Bitmap;
+
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+
+// Memoria ocupada por los bitmaps del juego, por recurso: originales decodificados, copias
+// escaladas y capas. Se actualiza al crear o soltar cada uno y se puede leer desde cualquier hilo.
+public class BitmapMemory {
+
+    private final Map<String, Integer> bytes = new LinkedHashMap<>();
+
+    public synchronized void track(String name, int byteCount) {
+        if (byteCount > 0) bytes.put(name, byteCount);
+        else bytes.remove(name);
+    }
+
+    public void track(String name, Bitmap bitmap) {
+        track(name, bitmap != null && !bitmap.isRecycled() ? bitmap.getAllocationByteCount() : 0);
+    }
+
+    public synchronized int getBytes(String name) {
+        Integer value = bytes.get(name);
+        return value != null ? value : 0;
+    }
+
+    public synchronized int getTotalBytes() {
+        int total = 0;
+        for (int value : bytes.values()) total += value;
+        return total;
+    }
+
+    // "atlas 132 KB, grid 188 KB, ... = 1.4 MB"
+    public synchronized String summary() {
+        StringBuilder sb = new StringBuilder();
+        for (Map.Entry<String, Integer> entry : bytes.entrySet()) {
+            if (sb.length() > 0) sb.append(", ");
+            sb.append(entry.getKey()).append(' ').append(format(entry.getValue()));
+        }
+        if (sb.length() == 0) sb.append("none");
+        return sb.append(" = ").append(format(getTotalBytes())).toString();
+    }
+
+    private static String format(int byteCount) {
+        if (byteCount >= 1024 * 1024) return String.format(Locale.US, "%.1f MB", byteCount / (1024f * 1024f));
+        return (byteCount + 1023) / 1024 + " KB";
+    }
+}
@@ -0,0 +1,64 @@
+package es.nellagames.viperx;
+
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Color;
+
+// Capa fuera de pantalla para contenido que cambia poco (caja de pregunta, HUD).
+// Se repinta solo cuando se marca como sucia; el resto de frames es un único drawBitmap.
+public class CachedLayer {
+
+    private Bitmap bitmap;
+    private Canvas canvas;
+    // Se puede marcar desde el hilo de UI mientras el hilo de juego dibuja
+    private volatile boolean dirty = true;
+
+    // Ajusta el tamaño de la capa; solo reserva memoria si cambia
+    public void setSize(int width, int height) {
+        if (width <= 0 || height <= 0) {
+            release();
+            return;
+        }
+        if (bitmap != null && bitmap.getWidth() == width && bitmap.getHeight() == height) return;
+        release();
+        bitmap = Bitmap.createBitmap(width, height, Bitmap.Config.ARGB_8888);
+        canvas = new Canvas(bitmap);
+        dirty = true;
+    }
+
+    public void markDirty() {
+        dirty = true;
+    }
+
+    public boolean isDirty() {
+        return dirty;
+    }
+
+    public boolean isReady() {
+        return bitmap != null;
+    }
+
+    // Devuelve el canvas de la capa ya borrado si hay que recomponerla, o null si sigue válida.
+    // La marca se limpia antes de repintar: un cambio durante el repintado fuerza otro.
+    public Canvas beginRedraw() {
+        if (!dirty || bitmap == null) return null;
+        dirty = false;
+        bitmap.eraseColor(Color.TRANSPARENT);
+        return canvas;
+    }
+
+    public void draw(Canvas target, float left, float top) {
+        if (bitmap != null) target.drawBitmap(bitmap, left, top, null);
+    }
+
+    public int getByteCount() {
+        return bitmap != null ? bitmap.getByteCount() : 0;
+    }
+
+    public void release() {
+        if (bitmap != null) bitmap.recycle();
+        bitmap = null;
+        canvas = null;
+        dirty = true;
+    }
+}
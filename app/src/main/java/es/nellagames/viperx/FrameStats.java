@@ -0,0 +1,116 @@
+package es.nellagames.viperx;
+
+import java.util.Locale;
+
+import es.nellagames.viperx.engine.Histogram;
+
+// Tiempos del bucle de juego medidos en el dispositivo: update, draw, lock/post, exceso al
+// dormir, jitter de los ticks y frame completo, en histogramas fijos (cubetas de 50 µs hasta
+// 50 ms) sin reservar memoria por frame. Además cuenta deadlines de frame perdidos y ticks
+// descartados.
+public class FrameStats {
+
+    public static final int OVERLAY_LINES = 5;
+
+    private static final long BUCKET_NANOS = 50_000L;
+    private static final int BUCKETS = 1000;
+
+    private final Histogram update = new Histogram(BUCKET_NANOS, BUCKETS);
+    private final Histogram draw = new Histogram(BUCKET_NANOS, BUCKETS);
+    private final Histogram lockPost = new Histogram(BUCKET_NANOS, BUCKETS);
+    private final Histogram sleepOvershoot = new Histogram(BUCKET_NANOS, BUCKETS);
+    private final Histogram frame = new Histogram(BUCKET_NANOS, BUCKETS);
+    // Retraso de cada tick respecto a su deadline
+    private final Histogram tickJitter = new Histogram(BUCKET_NANOS, BUCKETS);
+    // Desde el gesto o la tecla hasta el tick que aplica el giro: hasta un tick entero o más,
+    // así que cubetas de 1 ms hasta 1 s
+    private final Histogram inputLatency = new Histogram(1_000_000L, 1000);
+    private long ticks, frames, missedDeadlines, droppedTicks;
+    // Tiempo que el render pasó en reposo, sin dibujar
+    private long idleNanos;
+
+    public synchronized void recordTick(long updateNanos) {
+        update.record(updateNanos);
+        ticks++;
+    }
+
+    public synchronized void recordTickJitter(long lateNanos) {
+        tickJitter.record(Math.max(0, lateNanos));
+    }
+
+    public synchronized void recordIdle(long nanos) {
+        idleNanos += nanos;
+    }
+
+    // Ticks que no se simularon porque el atraso superaba el máximo de recuperación
+    public synchronized void recordDroppedTicks(long count) {
+        droppedTicks += count;
+    }
+
+    // frameNanos: desde el inicio del frame hasta el post; deadlineNanos: duración de un refresco
+    public synchronized void recordFrame(long drawNanos, long lockPostNanos, long frameNanos, long deadlineNanos) {
+        draw.record(drawNanos);
+        lockPost.record(lockPostNanos);
+        frame.record(frameNanos);
+        frames++;
+        if (frameNanos > deadlineNanos) missedDeadlines++;
+    }
+
+    public synchronized void recordInputLatency(long nanos) {
+        inputLatency.record(nanos);
+    }
+
+    // Cuánto más de lo pedido durmió el hilo
+    public synchronized void recordSleepOvershoot(long nanos) {
+        sleepOvershoot.record(nanos);
+    }
+
+    public synchronized long getFrames() { return frames; }
+    public synchronized long getTicks() { return ticks; }
+    public synchronized long getMissedDeadlines() { return missedDeadlines; }
+    public synchronized long getDroppedTicks() { return droppedTicks; }
+
+    public synchronized void reset() {
+        update.reset();
+        draw.reset();
+        lockPost.reset();
+        sleepOvershoot.reset();
+        frame.reset();
+        tickJitter.reset();
+        inputLatency.reset();
+        ticks = frames = missedDeadlines = droppedTicks = idleNanos = 0;
+    }
+
+    // Líneas cortas para el overlay de depuración; out debe tener al menos OVERLAY_LINES huecos
+    public synchronized void formatOverlay(String[] out) {
+        out[0] = line("frame", frame);
+        out[1] = line("draw", draw);
+        out[2] = line("update", update);
+        out[3] = line("jitter", tickJitter);
+        out[4] = String.format(Locale.US, "missed %d / %d  dropped ticks %d", missedDeadlines, frames, droppedTicks);
+    }
+
+    // Volcado completo, para logcat o para adjuntar a un informe
+    public synchronized String dump() {
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format(Locale.US, "frames=%d ticks=%d missedDeadlines=%d droppedTicks=%d idle=%.1fs%n",
+                frames, ticks, missedDeadlines, droppedTicks, idleNanos / 1e9));
+        sb.append(line("frame", frame)).append('\n');
+        sb.append(line("update", update)).append('\n');
+        sb.append(line("tickJitter", tickJitter)).append('\n');
+        sb.append(line("draw", draw)).append('\n');
+        sb.append(line("lockPost", lockPost)).append('\n');
+        sb.append(line("sleepOvershoot", sleepOvershoot)).append('\n');
+        sb.append(line("inputLatency", inputLatency));
+        return sb.toString();
+    }
+
+    private static String line(String name, Histogram h) {
+        return String.format(Locale.US, "%s p50 %.2f p95 %.2f p99 %.2f max %.2f ms",
+                name, ms(h.percentile(50)), ms(h.percentile(95)), ms(h.percentile(99)), ms(h.getMax()));
+    }
+
+    private static double ms(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+}
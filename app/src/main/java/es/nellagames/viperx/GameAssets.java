@@ -0,0 +1,121 @@
+package es.nellagames.viperx;
+
+import android.content.res.Resources;
+import android.graphics.Bitmap;
+import android.graphics.BitmapFactory;
+import android.graphics.Rect;
+import android.os.Handler;
+import android.os.Looper;
+import android.os.SystemClock;
+import android.util.Log;
+
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+// Carga de recursos del juego en un hilo de fondo, para no bloquear el arranque de la Activity.
+// Los sprites llegan en un único atlas generado al compilar (tarea generateSpriteAtlas, índice en
+// SpriteAtlas). Se decodifica sin escalado por densidad y reducido con inSampleSize al tamaño de
+// celda esperado; SpriteCache lo ajusta después a la celda exacta.
+public class GameAssets {
+
+    public interface Callback {
+        // En el hilo principal. regions en el orden de SpriteCache; grid puede ser null.
+        void onSpritesLoaded(Bitmap atlas, Rect[] regions, Bitmap grid);
+    }
+
+    private final Resources resources;
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+    // Un solo hilo, de prioridad baja, que termina si no hay trabajo
+    private final ThreadPoolExecutor executor;
+
+    public GameAssets(Resources resources) {
+        this.resources = resources;
+        executor = new ThreadPoolExecutor(1, 1, 5, TimeUnit.SECONDS, new LinkedBlockingQueue<Runnable>(),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "GameAssets");
+                    thread.setPriority(Thread.NORM_PRIORITY - 1);
+                    return thread;
+                });
+        executor.allowCoreThreadTimeOut(true);
+    }
+
+    // Trabajo de carga que no es de bitmaps (p. ej. sonidos)
+    public void submit(Runnable task) {
+        executor.execute(task);
+    }
+
+    // cellSize y gridSize: tamaño en píxeles al que se dibujarán sprites y cuadrícula.
+    // Si falla la decodificación no se llama al callback y se mantienen los placeholders.
+    public void loadSprites(final int cellSize, final int gridSize, final Callback callback) {
+        executor.execute(() -> {
+            long start = SystemClock.uptimeMillis();
+            try {
+                // Los sprites más grandes del atlas son los que deben quedar por encima de la celda
+                int spriteSize = 0;
+                for (int i = 0; i < SpriteAtlas.RECTS.length; i += 4) {
+                    spriteSize = Math.max(spriteSize, Math.min(SpriteAtlas.RECTS[i + 2] - SpriteAtlas.RECTS[i],
+                            SpriteAtlas.RECTS[i + 3] - SpriteAtlas.RECTS[i + 1]));
+                }
+                final Bitmap atlas = decodeAtlas(spriteSize, cellSize);
+                if (atlas == null) throw new IllegalStateException("Cannot decode sprite atlas");
+                final Rect[] regions = regionsFor(atlas);
+                // La cuadrícula es opaca: RGB_565 ocupa la mitad, y sus copias escaladas también
+                final Bitmap grid = decode(R.drawable.cuadricula, gridSize, Bitmap.Config.RGB_565);
+                Log.d("GameAssets", "Sprites decoded in " + (SystemClock.uptimeMillis() - start)
+                        + " ms for cell " + cellSize + " (atlas " + atlas.getWidth() + "x" + atlas.getHeight() + ")");
+                mainHandler.post(() -> callback.onSpritesLoaded(atlas, regions, grid));
+            } catch (Exception e) {
+                Log.e("GameAssets", "Error loading bitmaps: " + e.getMessage());
+            }
+        });
+    }
+
+    // El recurso puede ser una variante preescalada por densidad: su tamaño respecto a
+    // SpriteAtlas.WIDTH da la escala de los sprites dentro de él
+    private Bitmap decodeAtlas(int spriteSize, int cellSize) {
+        BitmapFactory.Options options = new BitmapFactory.Options();
+        options.inScaled = false;
+        options.inJustDecodeBounds = true;
+        BitmapFactory.decodeResource(resources, R.drawable.sprite_atlas, options);
+        int scaledSprite = spriteSize * options.outWidth / SpriteAtlas.WIDTH;
+        options.inSampleSize = sampleSizeFor(scaledSprite, scaledSprite, cellSize);
+        options.inJustDecodeBounds = false;
+        return BitmapFactory.decodeResource(resources, R.drawable.sprite_atlas, options);
+    }
+
+    // Rectángulos de SpriteAtlas llevados a la escala del bitmap decodificado
+    private static Rect[] regionsFor(Bitmap atlas) {
+        float scale = atlas.getWidth() / (float) SpriteAtlas.WIDTH;
+        int[] rects = SpriteAtlas.RECTS;
+        Rect[] regions = new Rect[rects.length / 4];
+        for (int i = 0; i < regions.length; i++) {
+            regions[i] = new Rect(Math.round(rects[4 * i] * scale), Math.round(rects[4 * i + 1] * scale),
+                    Math.round(rects[4 * i + 2] * scale), Math.round(rects[4 * i + 3] * scale));
+        }
+        return regions;
+    }
+
+    // Decodifica a la resolución del recurso (sin multiplicar por la densidad de pantalla),
+    // saltando píxeles si el original es al menos el doble de lo necesario
+    private Bitmap decode(int id, int targetSize, Bitmap.Config config) {
+        BitmapFactory.Options options = new BitmapFactory.Options();
+        options.inScaled = false;
+        options.inPreferredConfig = config;
+        options.inJustDecodeBounds = true;
+        BitmapFactory.decodeResource(resources, id, options);
+        options.inSampleSize = sampleSizeFor(options.outWidth, options.outHeight, targetSize);
+        options.inJustDecodeBounds = false;
+        return BitmapFactory.decodeResource(resources, id, options);
+    }
+
+    // Mayor potencia de dos que deja ambos lados por encima del tamaño pedido
+    static int sampleSizeFor(int width, int height, int targetSize) {
+        int sample = 1;
+        if (targetSize <= 0) return sample;
+        while (width / (sample * 2) >= targetSize && height / (sample * 2) >= targetSize) {
+            sample *= 2;
+        }
+        return sample;
+    }
+}
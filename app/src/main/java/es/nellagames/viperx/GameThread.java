@@ -1,24 +1,42 @@
 package es.nellagames.viperx;
 
 import android.graphics.Canvas;
+import android.graphics.Rect;
 import android.util.Log;
+import android.view.Display;
 import android.view.SurfaceHolder;
 
+import java.util.concurrent.locks.LockSupport;
+
+// Hilo de render: dibuja la última instantánea publicada por la simulación a la frecuencia de la
+// pantalla. No ejecuta ticks; la simulación corre en SimulationThread.
+// Si nada cambia (game over, partida quieta) entra en reposo: no bloquea ni publica buffers hasta
+// que GameView.idleDelayNanos() lo pide o wake() lo despierta (toque, tecla, instantánea nueva).
 public class GameThread extends Thread {
+    private static final long NANOS_PER_MILLI = 1_000_000L;
+
     private final SurfaceHolder surfaceHolder;
     private final GameView gameView;
-    private boolean running = false;
+    private volatile boolean running = false;
+    // Región a repintar cuando la vista permite redibujo parcial
+    private final Rect dirtyRect = new Rect();
 
-    public GameThread(SurfaceHolder surfaceHolder, GameView gameView, long gameSpeed) {
+    public GameThread(SurfaceHolder surfaceHolder, GameView gameView) {
+        super("GameThread");
         this.surfaceHolder = surfaceHolder;
         this.gameView = gameView;
     }
 
     public void setRunning(boolean run) {
         running = run;
+        if (!run) LockSupport.unpark(this);
         Log.d("GameThread", "Thread running set to: " + run);
     }
 
+    public void wake() {
+        LockSupport.unpark(this);
+    }
+
     public boolean isRunning() {
         return running;
     }
@@ -26,35 +44,111 @@ public class GameThread extends Thread {
     @Override
     public void run() {
         Log.d("GameThread", "Game thread started");
+        long frameNanos = resolveFrameNanos();
+        FrameStats stats = gameView.getFrameStats();
+
         while (running) {
+            long frameStart = System.nanoTime();
+
+            // Instantánea del frame, región a repintar y fracción del tick en curso
+            boolean partial;
+            float interpolation;
+            synchronized (surfaceHolder) {
+                partial = gameView.beginFrame(dirtyRect);
+                interpolation = gameView.interpolationAt(frameStart);
+            }
+            // El canvas hardware no admite rect sucio: siempre repinta entero
+            boolean hardware = gameView.useHardwareCanvas();
+            if (hardware) partial = false;
+
             Canvas canvas = null;
+            RenderBackendStats.Backend backend = RenderBackendStats.Backend.SOFTWARE;
+            long lockStart = System.nanoTime();
+            long drawNanos = 0;
             try {
-                canvas = surfaceHolder.lockCanvas();
+                if (partial && dirtyRect.isEmpty()) {
+                    // Nada ha cambiado: no se bloquea ni se publica ningún buffer
+                    canvas = null;
+                } else if (partial) {
+                    // Con rect, la superficie conserva el resto del frame anterior y recorta el canvas
+                    canvas = surfaceHolder.lockCanvas(dirtyRect);
+                } else {
+                    if (hardware) {
+                        canvas = lockHardwareCanvas();
+                        if (canvas != null) backend = RenderBackendStats.Backend.HARDWARE;
+                    }
+                    if (canvas == null) canvas = surfaceHolder.lockCanvas();
+                }
                 if (canvas != null) {
+                    long drawStart = System.nanoTime();
                     synchronized (surfaceHolder) {
-                        gameView.update();
-                        gameView.draw(canvas);
+                        gameView.drawFrame(canvas, interpolation);
                     }
+                    drawNanos = System.nanoTime() - drawStart;
                 }
             } catch (Exception e) {
                 Log.e("GameThread", "Error in game loop: " + e.getMessage());
             } finally {
                 if (canvas != null) {
                     try {
+                        // El post se bloquea hasta que la cola de buffers queda libre (vsync)
                         surfaceHolder.unlockCanvasAndPost(canvas);
                     } catch (Exception e) {
                         Log.e("GameThread", "Error unlocking canvas: " + e.getMessage());
                     }
+                    long posted = System.nanoTime();
+                    gameView.getBackendStats().record(backend, posted - lockStart);
+                    stats.recordFrame(drawNanos, posted - lockStart - drawNanos, posted - frameStart, frameNanos);
                 }
             }
 
-            try {
-                sleep(200);
-            } catch (InterruptedException e) {
-                Log.e("GameThread", "Thread interrupted: " + e.getMessage());
-                break;
+            // Reposo: hasta el siguiente frame necesario o hasta que algo cambie
+            long now = System.nanoTime();
+            long idleNanos;
+            synchronized (surfaceHolder) {
+                idleNanos = gameView.idleDelayNanos(now);
             }
+            if (idleNanos > 0) {
+                LockSupport.parkNanos(this, idleNanos);
+                stats.recordIdle(System.nanoTime() - now);
+                continue;
+            }
+
+            // Si el post no esperó al vsync (sin superficie, buffers libres), dormir
+            // hasta el siguiente frame
+            long wakeAt = frameStart + frameNanos;
+            long sleepNanos = wakeAt - now;
+            if (sleepNanos > 0) {
+                try {
+                    sleep(sleepNanos / NANOS_PER_MILLI, (int) (sleepNanos % NANOS_PER_MILLI));
+                    stats.recordSleepOvershoot(System.nanoTime() - wakeAt);
+                } catch (InterruptedException e) {
+                    Log.e("GameThread", "Thread interrupted: " + e.getMessage());
+                    break;
+                }
+            }
+        }
+        Log.d("GameThread", "Game thread ended - " + gameView.getBackendStats().summary());
+        Log.d("GameThread", "Frame stats:\n" + stats.dump());
+    }
+
+    // Canvas acelerado por GPU; si la superficie no lo admite, la vista vuelve a software
+    private Canvas lockHardwareCanvas() {
+        try {
+            return surfaceHolder.lockHardwareCanvas();
+        } catch (RuntimeException e) {
+            gameView.onHardwareCanvasUnavailable(e);
+            return null;
+        }
+    }
+
+    // Duración de un frame según la frecuencia de refresco real de la pantalla (60/90/120 Hz)
+    private long resolveFrameNanos() {
+        float refreshRate = 60f;
+        Display display = gameView.getDisplay();
+        if (display != null && display.getRefreshRate() > 1f) {
+            refreshRate = display.getRefreshRate();
         }
-        Log.d("GameThread", "Game thread ended");
+        return (long) (1_000_000_000L / refreshRate);
     }
-}
\ No newline at end of file
+}
@@ -1,5 +1,6 @@
 package es.nellagames.viperx;
 
+import android.content.ComponentCallbacks2;
 import android.content.Context;
 import android.graphics.*;
 import android.media.SoundPool;
@@ -11,50 +12,121 @@ import android.view.SurfaceHolder;
 import android.view.SurfaceView;
 import android.widget.TextView;
 
-import java.util.ArrayList;
-import java.util.List;
-import java.util.Random;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+
+import es.nellagames.viperx.engine.Direction;
+import es.nellagames.viperx.engine.DirtyCells;
+import es.nellagames.viperx.engine.FoodItem;
+import es.nellagames.viperx.engine.GameEngine;
+import es.nellagames.viperx.engine.GameRandom;
+import es.nellagames.viperx.engine.GameSimulation;
+import es.nellagames.viperx.engine.GameSnapshot;
+import es.nellagames.viperx.engine.OccupancyGrid;
+import es.nellagames.viperx.engine.SnakeBody;
+import es.nellagames.viperx.engine.SpeedCurve;
 
 public class GameView extends SurfaceView implements SurfaceHolder.Callback {
 
+    // Hilo de render (dibuja la última instantánea) e hilo de simulación (ticks del motor)
     private GameThread thread;
-    private int highScore = 0;
+    private SimulationThread simulationThread;
+    private volatile int highScore = 0;
 
     // Listener para comunicar eventos a la Activity
     private GameEventListener gameEventListener;
 
-    // Estado del juego
-    private List<Point> snake = new ArrayList<>();
-    private Direction direction = Direction.RIGHT;
-    private Direction pendingDirection = null;
-    private int correctAnswer = 0;
-    private int questionA = 1, questionB = 1;
-    private String operation = "+";
-    private int score = 0;
-    private boolean gameOver = false;
-    private final int numCells = 10;
+    // Generador de la sesión: de él salen el de las estrellas y el de la simulación (cada partida
+    // toma el suyo y se graba con su semilla). Solo se toca aquí, al construir la vista.
+    private final GameRandom sessionRandom = new GameRandom(System.nanoTime());
+    // Estado del juego: el motor vive en el hilo de simulación. La vista le manda giros y órdenes
+    // (reiniciar, tamaño de tablero) como mensajes y dibuja la última instantánea publicada.
+    private final GameSimulation simulation = new GameSimulation(sessionRandom.split());
+    private GameEngine.Listener engineListener;
     private float startX, startY;
-
-    // Bonus
-    private int bonusValue = 5;
-    private final long gameSpeed = 1200;
+    // Tablero pedido desde la UI; la geometría no espera a que la simulación lo aplique
+    private volatile int boardColumns = GameEngine.DEFAULT_BOARD_SIZE, boardRows = GameEngine.DEFAULT_BOARD_SIZE;
+    // Instantánea del frame en curso y últimos valores con los que se formateó el HUD (hilo de render)
+    private GameSnapshot frame;
+    private long lastFrameSerial = -1;
+    private int hudScore = -1, hudHighScore = -1;
+    private long hudQuestion = -1;
+    // Un paso de parpadeo cada STAR_TWINKLE_NANOS de tiempo real (un tick a la velocidad inicial),
+    // sin acelerar con la partida; como mucho MAX_STAR_STEPS por frame, si el render se retrasa
+    private static final long STAR_TWINKLE_NANOS = 200_000_000L;
+    private static final int MAX_STAR_STEPS = 5;
+    private long lastStarNanos = -1;
+
+    // La imagen de cuadrícula representa un bloque de 10x10 celdas y se repite por el tablero
+    private static final int GRID_TILE_CELLS = 10;
+    // Por debajo de este tamaño de celda el tablero deja de caber y la cámara sigue a la cabeza
+    private static final float MIN_CELL_DP = 28f;
+
+    // Grabaciones de las últimas partidas, en getFilesDir()
+    private static final String REPLAY_DIR = "replays";
+    private static final int MAX_REPLAYS = 10;
+    // Reposo del render: frecuencia del pulso de "tap to restart" en game over y espera máxima
+    // sin cambios (solo por seguridad: los cambios despiertan al render)
+    private static final long IDLE_PULSE_NANOS = 100_000_000L;
+    private static final long IDLE_MAX_NANOS = 1_000_000_000L;
+    // Modo demo: juega el piloto automático y cada partida se reinicia sola tras esta pausa
+    private static final long DEMO_RESTART_DELAY_MS = 2000;
 
     // No usamos TextViews para evitar duplicación en pantalla
     private TextView questionTextView;
     private TextView scoreTextView;
 
-    // Sonidos
-    private SoundPool soundPool;
+    // Sonidos, cargados en segundo plano; soundPool se publica cuando ya tiene los ids
+    private volatile SoundPool soundPool;
     private int correctSound, errorSound, bonusSound, loseSound;
     private boolean soundsLoaded = false;
 
-    // Sprites
-    private Bitmap head_up, head_down, head_left, head_right;
-    private Bitmap body_vertical, body_horizontal, body_topleft, body_topright, body_bottomleft, body_bottomright;
-    private Bitmap tail_up, tail_down, tail_left, tail_right;
-    private Bitmap apple, candy, sushi1, sushi2;
-    private Bitmap[] foodBitmaps;
+    // Carga diferida de sprites y sonidos (ver preloadAssets). Hasta que llegan se dibujan
+    // placeholders de color; los flags solo se tocan en el hilo principal.
+    private final GameAssets gameAssets;
+    private boolean spritesRequested, soundsRequested;
+
+    // Atlas de sprites de origen (regiones por índice de SpriteCache) y copia escalada a la celda
+    private Bitmap spriteAtlas;
     private Bitmap gridBackground;
+    private final SpriteCache spriteCache = SpriteCache.withDefaultBudget();
+    private volatile SpriteCache.ScaledSprites sprites;
+    // Bytes por recurso (originales, copias escaladas, capas), ver trimMemory
+    private final BitmapMemory bitmapMemory = new BitmapMemory();
+
+    // Geometría del tablero, recalculada solo al cambiar el tamaño: celda, ventana visible en
+    // pantalla (offset + viewWidth/viewHeight) y tamaño total del tablero en píxeles
+    private int cellSizeDynamic, offsetX, offsetY, viewWidth, viewHeight;
+    private int boardPixelWidth, boardPixelHeight;
+    private int layoutWidth, layoutHeight;
+    // Cámara: esquina superior izquierda de la ventana dentro del tablero, en píxeles
+    private float cameraX, cameraY;
+
+    // Redibujo parcial: solo se repinta la unión de las casillas cambiadas en los últimos ticks.
+    // Se repinta todo al cambiar el tamaño, reiniciar, en game over o si la cámara se desplaza.
+    private volatile boolean partialRedraw = false;
+    private volatile boolean fullRedraw = true;
+    // Región (en pantalla) de las casillas del tick en curso y del anterior, que aún puede
+    // tener sprites interpolados a medio camino
+    private final Rect tickDirty = new Rect();
+    private final Rect previousTickDirty = new Rect();
+    private final Rect cellDirty = new Rect();
+    // Destino de cada sprite del atlas (hilo de render)
+    private final RectF spriteDst = new RectF();
+
+    // Backend de render: canvas hardware opcional, con vuelta a software si la superficie falla
+    private volatile boolean hardwareRendering = false;
+    private volatile boolean hardwareUnavailable = false;
+    private final RenderBackendStats backendStats = new RenderBackendStats();
+
+    // Tiempos del bucle y overlay de depuración opcional; su texto se refresca dos veces por segundo
+    private final FrameStats frameStats = new FrameStats();
+    private volatile boolean debugOverlay = false;
+    private final String[] overlayLines = new String[FrameStats.OVERLAY_LINES];
+    private long overlayRefreshedAt;
+    private static final long OVERLAY_REFRESH_NANOS = 500_000_000L;
 
     // Listener de eventos
     public interface GameEventListener {
@@ -65,31 +137,17 @@ public class GameView extends SurfaceView implements SurfaceHolder.Callback {
     // Botón Back to Menu
     private RectF backToMenuButton = new RectF();
 
-    // Estructura de alimentos
-    private class FoodItem {
-        Point position;
-        int value;
-        boolean isCorrect;
-        Bitmap bitmap;
-        FoodItem(Point position, int value, boolean isCorrect, Bitmap bitmap) {
-            this.position = position;
-            this.value = value;
-            this.isCorrect = isCorrect;
-            this.bitmap = bitmap;
-        }
-    }
-    private FoodItem correctFood;
-    private List<FoodItem> wrongFoods = new ArrayList<>();
-    private FoodItem bonusFood;
+    // Recursos de dibujo reutilizados y textos del HUD ya formateados
+    private final RenderResources renderResources = new RenderResources();
+    private String questionText = "", scoreText = "", finalScoreText = "", highScoreText = "";
 
-    // Estrellas de fondo
-    private class Star {
-        float x, y;
-        float alpha;
-        boolean increasing;
-    }
-    private List<Star> stars = new ArrayList<>();
-    private final int numStars = 180;
+    // Caja de pregunta con Score/Best ya compuesta; se repinta al cambiar pregunta, puntos o tamaño
+    private final CachedLayer hudLayer = new CachedLayer();
+    // Margen alrededor de la caja para el borde exterior y las sombras del texto
+    private static final int HUD_LAYER_MARGIN = 8;
+
+    // Estrellas de fondo, su número depende del área de la pantalla
+    private final StarField starField = new StarField(sessionRandom.split());
 
     public GameView(Context context) {
         this(context, null);
@@ -98,23 +156,117 @@ public class GameView extends SurfaceView implements SurfaceHolder.Callback {
     public GameView(Context context, AttributeSet attrs) {
         super(context, attrs);
         getHolder().addCallback(this);
-        thread = new GameThread(getHolder(), this, gameSpeed);
         setFocusable(true);
         setFocusableInTouchMode(true);
-        initializeSounds(context);
-        initializeBitmaps();
+        gameAssets = new GameAssets(getResources());
+        createPlaceholderBitmaps();
+        engineListener = new GameEngine.Listener() {
+            @Override
+            public void onCorrectFood(int score) {
+                playSound(correctSound, "correct");
+            }
+
+            @Override
+            public void onWrongFood(int score) {
+                playSound(errorSound, "error");
+            }
+
+            @Override
+            public void onBonusFood(int score) {
+                playSound(bonusSound, "bonus");
+            }
+
+            // Notificar Game Over a la Activity con el score
+            @Override
+            public void onGameOver(int finalScore) {
+                playSound(loseSound, "lose");
+                if (gameEventListener != null) {
+                    gameEventListener.onGameOver(finalScore);
+                }
+                if (simulation.isAutopilot()) {
+                    // Prueba de resistencia sin nadie delante: tiempos y memoria de cada partida al log
+                    postDelayed(() -> {
+                        if (!simulation.isAutopilot()) return;
+                        dumpFrameStats();
+                        restartGame();
+                    }, DEMO_RESTART_DELAY_MS);
+                }
+            }
+        };
+        // Los eventos llegan en el hilo de simulación
+        simulation.setListener(engineListener);
+        final File replayDir = new File(context.getFilesDir(), REPLAY_DIR);
+        simulation.setReplaySink(new GameSimulation.ReplaySink() {
+            @Override
+            public void onReplayFinished(final byte[] replay) {
+                // La escritura no se hace en el hilo de simulación
+                gameAssets.submit(() -> saveReplay(replayDir, replay));
+            }
+        });
         restartGame();
+    }
+
+    // Arranca en segundo plano la carga de sprites y sonidos. La Activity la pide tras pintar
+    // el menú, para que esté lista al pulsar Play; si no, se juega con placeholders hasta que llegue.
+    public void preloadAssets() {
+        if (!soundsRequested) {
+            soundsRequested = true;
+            final Context context = getContext().getApplicationContext();
+            gameAssets.submit(() -> initializeSounds(context));
+        }
+        if (!spritesRequested) {
+            spritesRequested = true;
+            int cell = expectedCellSize();
+            gameAssets.loadSprites(cell, cell * GRID_TILE_CELLS, new GameAssets.Callback() {
+                @Override
+                public void onSpritesLoaded(Bitmap atlas, Rect[] regions, Bitmap grid) {
+                    spriteAtlas = atlas;
+                    gridBackground = grid;
+                    spriteCache.setSources(atlas, regions, grid);
+                    synchronized (getHolder()) {
+                        layoutWidth = layoutHeight = 0;
+                    }
+                    updateLayout(getWidth(), getHeight());
+                    trackBitmapMemory();
+                }
+            });
+        }
+    }
 
-        // Inicializar estrellas con valores por defecto, se recalibran en onSizeChanged
-        Random rand = new Random();
-        for (int i = 0; i < numStars; i++) {
-            Star s = new Star();
-            s.x = rand.nextFloat() * 1080;
-            s.y = rand.nextFloat() * 1920;
-            s.alpha = rand.nextFloat();
-            s.increasing = rand.nextBoolean();
-            stars.add(s);
+    // Celda con la que se dibujará el tablero; antes del primer layout se estima con la pantalla
+    private int expectedCellSize() {
+        int width = getWidth(), height = getHeight();
+        if (width <= 0 || height <= 0) {
+            width = getResources().getDisplayMetrics().widthPixels;
+            height = getResources().getDisplayMetrics().heightPixels;
         }
+        return cellSizeFor(width, height, boardColumns, boardRows);
+    }
+
+    private int cellSizeFor(int width, int height, int columns, int rows) {
+        int availableWidth = width - 32;
+        int availableHeight = height - 380; // espacio para la caja grande
+        int minCell = Math.round(MIN_CELL_DP * getResources().getDisplayMetrics().density);
+        // Si el tablero entero no cabe con celdas legibles, se muestra una ventana que sigue a la cabeza
+        return Math.max(minCell, Math.min(availableWidth / columns, availableHeight / rows));
+    }
+
+    // Guarda la grabación de una partida y deja solo las MAX_REPLAYS más recientes.
+    // Se reproducen sin interfaz con ReplayPlayer (./gradlew :engine:replay -Preplay=...).
+    private static void saveReplay(File dir, byte[] replay) {
+        if (!dir.isDirectory() && !dir.mkdirs()) return;
+        File file = new File(dir, "replay-" + System.currentTimeMillis() + ".vxr");
+        try (FileOutputStream out = new FileOutputStream(file)) {
+            out.write(replay);
+            Log.d("GameView", "Saved replay " + file.getName() + " (" + replay.length + " bytes)");
+        } catch (IOException e) {
+            Log.e("GameView", "Error saving replay: " + e.getMessage());
+            return;
+        }
+        File[] files = dir.listFiles();
+        if (files == null || files.length <= MAX_REPLAYS) return;
+        Arrays.sort(files);
+        for (int i = 0; i < files.length - MAX_REPLAYS; i++) files[i].delete();
     }
 
     // Exponer listener para Activity
@@ -125,26 +277,208 @@ public class GameView extends SurfaceView implements SurfaceHolder.Callback {
     @Override
     protected void onSizeChanged(int w, int h, int oldw, int oldh) {
         super.onSizeChanged(w, h, oldw, oldh);
-        stars.clear();
-        Random rand = new Random();
-        for (int i = 0; i < numStars; i++) {
-            Star s = new Star();
-            s.x = rand.nextFloat() * w;
-            s.y = rand.nextFloat() * h;
-            s.alpha = 0.3f + rand.nextFloat() * 0.7f;
-            s.increasing = rand.nextBoolean();
-            stars.add(s);
+        synchronized (getHolder()) {
+            starField.resize(w, h);
+        }
+        updateLayout(w, h);
+    }
+
+    // Cambia las dimensiones del tablero (en celdas) y empieza una partida nueva. Los valores vienen
+    // de preferencias: se ajustan al rango que admite GameEngine en lugar de fallar
+    public void setBoardSize(int columns, int rows) {
+        columns = Math.max(GameEngine.MIN_BOARD_WIDTH, Math.min(GameEngine.MAX_BOARD_SIZE, columns));
+        rows = Math.max(GameEngine.MIN_BOARD_HEIGHT, Math.min(GameEngine.MAX_BOARD_SIZE, rows));
+        if (columns == boardColumns && rows == boardRows) return;
+        synchronized (getHolder()) {
+            boardColumns = columns;
+            boardRows = rows;
+            layoutWidth = layoutHeight = 0;
+        }
+        simulation.requestBoardSize(columns, rows);
+        wakeSimulation();
+        updateLayout(getWidth(), getHeight());
+    }
+
+    // Calcula la geometría del tablero y prepara los sprites escalados para ese tamaño
+    private void updateLayout(int width, int height) {
+        if (width <= 0 || height <= 0) return;
+        if (width == layoutWidth && height == layoutHeight && sprites != null) return;
+        int columns = boardColumns;
+        int rows = boardRows;
+        int availableWidth = width - 32;
+        int availableHeight = height - 380; // espacio para la caja grande
+        int cell = cellSizeFor(width, height, columns, rows);
+        int tile = cell * GRID_TILE_CELLS;
+        SpriteCache.ScaledSprites scaled = spriteCache.get(cell, tile, tile, useHardwareCanvas());
+        synchronized (getHolder()) {
+            cellSizeDynamic = cell;
+            boardPixelWidth = cell * columns;
+            boardPixelHeight = cell * rows;
+            viewWidth = Math.min(boardPixelWidth, availableWidth);
+            viewHeight = Math.min(boardPixelHeight, availableHeight);
+            offsetX = (width - viewWidth) / 2;
+            offsetY = ((height - viewHeight) / 2) + 190;
+            layoutWidth = width;
+            layoutHeight = height;
+            renderResources.resize(width, height, cell);
+            RectF questionRect = renderResources.questionRect;
+            hudLayer.setSize(Math.round(questionRect.width()) + 2 * HUD_LAYER_MARGIN,
+                    Math.round(questionRect.height()) + 2 * HUD_LAYER_MARGIN);
+            renderResources.setGridTile(scaled != null ? scaled.grid : null);
+            sprites = scaled;
+            requestFullRedraw();
+        }
+        trackBitmapMemory();
+    }
+
+    // Sprites válidos para el canvas de este frame: los bitmaps HARDWARE no se pueden dibujar en
+    // un canvas software. Si se soltaron por memoria o el backend cambió, se reconstruyen aquí.
+    // Hilo de render, con el lock del holder.
+    private SpriteCache.ScaledSprites spritesFor(Canvas canvas) {
+        boolean hardware = canvas.isHardwareAccelerated();
+        SpriteCache.ScaledSprites scaled = sprites;
+        if (scaled != null && (hardware || !scaled.hardware)) return scaled;
+        int cell = cellSizeDynamic;
+        if (cell <= 0) return null;
+        scaled = spriteCache.get(cell, cell * GRID_TILE_CELLS, cell * GRID_TILE_CELLS, hardware);
+        if (scaled != null) {
+            renderResources.setGridTile(scaled.grid);
+            sprites = scaled;
+            fullRedraw = true;
+            trackBitmapMemory();
+        }
+        return scaled;
+    }
+
+    // Libera lo que se puede reconstruir. Con la interfaz oculta, las copias escaladas y la capa
+    // del HUD (se rehacen al volver a dibujar); en segundo plano o con poca memoria del sistema,
+    // también los originales decodificados, que se vuelven a cargar en resume(). Hilo principal.
+    public void trimMemory(int level) {
+        if (level < ComponentCallbacks2.TRIM_MEMORY_UI_HIDDEN) return;
+        synchronized (getHolder()) {
+            sprites = null;
+            spriteCache.clear();
+            hudLayer.release();
+            requestFullRedraw();
         }
+        if (level >= ComponentCallbacks2.TRIM_MEMORY_BACKGROUND && spriteCache.hasSources() && spriteAtlas != null) {
+            // Placeholders hasta que se recarguen
+            createPlaceholderBitmaps();
+            spritesRequested = false;
+        }
+        trackBitmapMemory();
+        Log.i("GameView", "Trimmed bitmaps (level " + level + "): " + bitmapMemory.summary());
+    }
+
+    private void trackBitmapMemory() {
+        bitmapMemory.track("atlas", spriteAtlas);
+        bitmapMemory.track("grid", gridBackground);
+        bitmapMemory.track("scaled sprites", spriteCache.getByteCount());
+        bitmapMemory.track("hud layer", hudLayer.getByteCount());
+        bitmapMemory.track("game over glow", renderResources.getGameOverGlowByteCount());
+    }
+
+    public BitmapMemory getBitmapMemory() {
+        return bitmapMemory;
+    }
+
+    // Sprites reales (no placeholders) cargados y escalados para el tablero (pruebas de instrumentación)
+    boolean hasLoadedSprites() {
+        return spriteAtlas != null && sprites != null;
     }
 
+    // Estado de la última instantánea publicada (pruebas de instrumentación)
+    boolean isPublishedGameOver() {
+        return simulation.isPublishedGameOver();
+    }
+
+    // Toma la última instantánea publicada, rehace los textos del HUD que hayan cambiado y avanza el
+    // parpadeo de las estrellas. Si es nueva, acumula sus casillas sucias. Hilo de render.
+    private void acquireFrame() {
+        GameSnapshot snapshot = simulation.latestSnapshot();
+        boolean wasGameOver = frame != null && frame.isGameOver();
+        frame = snapshot;
+        updateTextViews(snapshot);
+        advanceStars(snapshot);
+        long serial = snapshot.getSerial();
+        if (serial == lastFrameSerial) return;
+
+        DirtyCells cells = snapshot.getDirtyCells();
+        if (cells.isAll() || snapshot.getPreviousSerial() != lastFrameSerial) {
+            // Tablero nuevo o instantáneas saltadas: no se sabe qué casillas cambiaron
+            previousTickDirty.union(tickDirty);
+            tickDirty.set(offsetX, offsetY, offsetX + viewWidth, offsetY + viewHeight);
+        } else if (!cells.isEmpty()) {
+            previousTickDirty.union(tickDirty);
+            tickDirty.setEmpty();
+            int cell = cellSizeDynamic;
+            // Media celda de margen para sombras y sprites que sobresalen
+            int pad = cell / 2;
+            for (int i = 0; i < cells.size(); i++) {
+                int index = cells.get(i);
+                int left = offsetX + snapshot.x(index) * cell;
+                int top = offsetY + snapshot.y(index) * cell;
+                cellDirty.set(left - pad, top - pad, left + cell + pad, top + cell + pad);
+                tickDirty.union(cellDirty);
+            }
+        }
+        // Entrar o salir del game over cambia toda la pantalla
+        if (wasGameOver != snapshot.isGameOver()) fullRedraw = true;
+        lastFrameSerial = serial;
+    }
+
+    // Parpadeo de estrellas según el tiempo transcurrido, no según las instantáneas: con la rampa
+    // de velocidad los ticks se acortan. Congeladas en game over y en redibujo parcial, porque
+    // ocupan toda la pantalla. Hilo de render.
+    private void advanceStars(GameSnapshot snapshot) {
+        if (partialRedraw || snapshot.isGameOver()) {
+            lastStarNanos = -1;
+            return;
+        }
+        long now = System.nanoTime();
+        if (lastStarNanos < 0) {
+            starField.update();
+            lastStarNanos = now;
+            return;
+        }
+        long steps = (now - lastStarNanos) / STAR_TWINKLE_NANOS;
+        if (steps == 0) return;
+        // Tras un retraso largo no se recupera el atraso
+        lastStarNanos = steps > MAX_STAR_STEPS ? now : lastStarNanos + steps * STAR_TWINKLE_NANOS;
+        for (int i = 0; i < Math.min(steps, MAX_STAR_STEPS); i++) starField.update();
+    }
+
+    // Empieza un frame en el hilo de render: toma la instantánea y calcula la región a repintar.
+    // Devuelve false si hay que repintar la pantalla entera; si devuelve true y out queda vacío,
+    // no hace falta dibujar este frame. Se llama con el lock del holder.
+    public boolean beginFrame(Rect out) {
+        acquireFrame();
+        boolean cameraScrolls = viewWidth < boardPixelWidth || viewHeight < boardPixelHeight;
+        if (!partialRedraw || fullRedraw || debugOverlay || frame.isGameOver() || cameraScrolls || sprites == null) {
+            fullRedraw = false;
+            previousTickDirty.setEmpty();
+            return false;
+        }
+        out.set(tickDirty);
+        out.union(previousTickDirty);
+        previousTickDirty.setEmpty();
+        if (hudLayer.isDirty()) {
+            RectF rect = renderResources.questionRect;
+            out.union((int) rect.left - HUD_LAYER_MARGIN, (int) rect.top - HUD_LAYER_MARGIN,
+                    (int) Math.ceil(rect.right) + HUD_LAYER_MARGIN, (int) Math.ceil(rect.bottom) + HUD_LAYER_MARGIN);
+        }
+        return true;
+    }
+
+    // Hilo de GameAssets
     private void initializeSounds(Context context) {
         try {
-            soundPool = new SoundPool.Builder().setMaxStreams(5).build();
-            correctSound = soundPool.load(context, R.raw.correct, 1);
-            errorSound = soundPool.load(context, R.raw.error, 1);
-            bonusSound = soundPool.load(context, R.raw.bonus, 1);
-            loseSound = soundPool.load(context, R.raw.lose, 1);
-            soundPool.setOnLoadCompleteListener(new SoundPool.OnLoadCompleteListener() {
+            SoundPool pool = new SoundPool.Builder().setMaxStreams(5).build();
+            correctSound = pool.load(context, R.raw.correct, 1);
+            errorSound = pool.load(context, R.raw.error, 1);
+            bonusSound = pool.load(context, R.raw.bonus, 1);
+            loseSound = pool.load(context, R.raw.lose, 1);
+            pool.setOnLoadCompleteListener(new SoundPool.OnLoadCompleteListener() {
                 @Override
                 public void onLoadComplete(SoundPool soundPool, int sampleId, int status) {
                     if (status == 0) {
@@ -155,90 +489,45 @@ public class GameView extends SurfaceView implements SurfaceHolder.Callback {
                     }
                 }
             });
+            soundPool = pool;
         } catch (Exception e) {
             Log.e("GameView", "Error initializing sounds: " + e.getMessage());
             soundPool = null;
         }
     }
 
-    private void initializeBitmaps() {
-        try {
-            head_up = BitmapFactory.decodeResource(getResources(), R.drawable.head_up);
-            head_down = BitmapFactory.decodeResource(getResources(), R.drawable.head_down);
-            head_left = BitmapFactory.decodeResource(getResources(), R.drawable.head_left);
-            head_right = BitmapFactory.decodeResource(getResources(), R.drawable.head_right);
-            body_vertical = BitmapFactory.decodeResource(getResources(), R.drawable.body_vertical);
-            body_horizontal = BitmapFactory.decodeResource(getResources(), R.drawable.body_horizontal);
-            body_topleft = BitmapFactory.decodeResource(getResources(), R.drawable.body_topleft);
-            body_topright = BitmapFactory.decodeResource(getResources(), R.drawable.body_topright);
-            body_bottomleft = BitmapFactory.decodeResource(getResources(), R.drawable.body_bottomleft);
-            body_bottomright = BitmapFactory.decodeResource(getResources(), R.drawable.body_bottomright);
-            tail_up = BitmapFactory.decodeResource(getResources(), R.drawable.tail_up);
-            tail_down = BitmapFactory.decodeResource(getResources(), R.drawable.tail_down);
-            tail_left = BitmapFactory.decodeResource(getResources(), R.drawable.tail_left);
-            tail_right = BitmapFactory.decodeResource(getResources(), R.drawable.tail_right);
-            apple = BitmapFactory.decodeResource(getResources(), R.drawable.apple);
-            candy = BitmapFactory.decodeResource(getResources(), R.drawable.candy);
-            sushi1 = BitmapFactory.decodeResource(getResources(), R.drawable.sushi1);
-            sushi2 = BitmapFactory.decodeResource(getResources(), R.drawable.sushi2);
-
-            gridBackground = BitmapFactory.decodeResource(getResources(), R.drawable.cuadricula);
-
-            foodBitmaps = new Bitmap[]{apple, candy, sushi1, sushi2};
-        } catch (Exception e) {
-            Log.e("GameView", "Error loading bitmaps: " + e.getMessage());
-            createFallbackBitmaps();
-        }
-    }
-
     private void playSound(int soundId, String soundName) {
-        if (soundPool != null && soundId > 0) {
+        SoundPool pool = soundPool;
+        if (pool != null && soundId > 0) {
             try {
-                soundPool.play(soundId, 1.0f, 1.0f, 1, 0, 1.0f);
+                pool.play(soundId, 1.0f, 1.0f, 1, 0, 1.0f);
             } catch (Exception e) {
                 Log.e("GameView", "Play sound error (" + soundName + "): " + e.getMessage());
             }
         }
     }
 
-    private void createFallbackBitmaps() {
-        int size = 70;
-        head_up = head_down = head_left = head_right = createColorBitmap(size, Color.GREEN);
-        body_vertical = body_horizontal = body_topleft = body_topright = body_bottomleft = body_bottomright = createColorBitmap(size, Color.BLUE);
-        tail_up = tail_down = tail_left = tail_right = createColorBitmap(size, Color.CYAN);
-        apple = candy = sushi1 = sushi2 = createColorBitmap(size, Color.RED);
-        foodBitmaps = new Bitmap[]{apple, candy, sushi1, sushi2};
-        gridBackground = createGridFallback(700, Color.rgb(198, 255, 198), Color.BLACK);
-    }
-
-    private Bitmap createColorBitmap(int size, int color) {
-        Bitmap bitmap = Bitmap.createBitmap(size, size, Bitmap.Config.ARGB_8888);
-        Canvas canvas = new Canvas(bitmap);
+    // Placeholders de color liso mientras se cargan los sprites (o si fallan); sin cuadrícula,
+    // el tablero se pinta con el color de celda
+    private void createPlaceholderBitmaps() {
+        // Mini atlas con un cuadrado por tipo: cabeza, cuerpo, cola y comida
+        int size = 8;
+        int[] colors = {Color.GREEN, Color.BLUE, Color.CYAN, Color.RED};
+        Bitmap atlas = Bitmap.createBitmap(size * colors.length, size, Bitmap.Config.ARGB_8888);
+        Canvas canvas = new Canvas(atlas);
         Paint paint = new Paint();
-        paint.setColor(color);
-        canvas.drawRect(0, 0, size, size, paint);
-        return bitmap;
-    }
-
-    private Bitmap createGridFallback(int size, int backgroundColor, int lineColor) {
-        Bitmap bitmap = Bitmap.createBitmap(size, size, Bitmap.Config.ARGB_8888);
-        Canvas canvas = new Canvas(bitmap);
-        Paint bgPaint = new Paint();
-        bgPaint.setColor(backgroundColor);
-        canvas.drawRect(0, 0, size, size, bgPaint);
-        Paint gridPaint = new Paint();
-        gridPaint.setColor(lineColor);
-        gridPaint.setStrokeWidth(2);
-        int cellSize = size / numCells;
-        for (int i = 0; i <= numCells; i++) {
-            int x = i * cellSize;
-            canvas.drawLine(x, 0, x, size, gridPaint);
+        for (int i = 0; i < colors.length; i++) {
+            paint.setColor(colors[i]);
+            canvas.drawRect(i * size, 0, (i + 1) * size, size, paint);
         }
-        for (int i = 0; i <= numCells; i++) {
-            int y = i * cellSize;
-            canvas.drawLine(0, y, size, y, gridPaint);
+        Rect[] regions = new Rect[SpriteCache.SPRITE_COUNT];
+        for (int i = 0; i < SpriteCache.SPRITE_COUNT; i++) {
+            int kind = i < SpriteCache.BODY_VERTICAL ? 0 : i < SpriteCache.TAIL_UP ? 1 : i < SpriteCache.FOOD_FIRST ? 2 : 3;
+            regions[i] = new Rect(kind * size, 0, (kind + 1) * size, size);
         }
-        return bitmap;
+        spriteAtlas = null;
+        gridBackground = null;
+        spriteCache.setSources(atlas, regions, null);
     }
 
     // No usar TextViews externos para no duplicar la UI
@@ -247,365 +536,411 @@ public class GameView extends SurfaceView implements SurfaceHolder.Callback {
         this.scoreTextView = null;
     }
 
-    private void updateTextViews() {
-        // Intencionadamente vacío: toda la UI se dibuja en canvas
+    // Toda la UI se dibuja en canvas: aquí solo se recalculan sus textos, y solo si cambian
+    private void updateTextViews(GameSnapshot snapshot) {
+        int score = snapshot.getScore();
+        long question = snapshot.getQuestionSerial();
+        int best = highScore;
+        if (score == hudScore && question == hudQuestion && best == hudHighScore) return;
+        if (question != hudQuestion) {
+            questionText = snapshot.getQuestion().text;
+        }
+        if (score != hudScore) {
+            scoreText = "Score: " + score;
+            finalScoreText = "Final Score: " + score;
+        }
+        if (best != hudHighScore) highScoreText = "Best: " + best;
+        hudScore = score;
+        hudQuestion = question;
+        hudHighScore = best;
+        hudLayer.markDirty();
     }
 
-    // Recibir high score desde MainActivity
+    // Recibir high score desde MainActivity; el render rehace el texto en el siguiente frame
     public void setHighScore(int highScore) {
         this.highScore = highScore;
+        wakeRender();
     }
 
-    // Exponer el score actual (para guardar/best)
+    // Exponer el score actual (para guardar/best), según la última instantánea publicada
     public int getCurrentScore() {
-        return score;
+        return simulation.getPublishedScore();
+    }
+
+    // Modo de bajo consumo: las estrellas dejan de parpadear y solo se repinta lo que cambia
+    public void setPartialRedraw(boolean enabled) {
+        partialRedraw = enabled;
+        requestFullRedraw();
+    }
+
+    // Usa lockHardwareCanvas() en lugar del canvas software (no compatible con redibujo parcial)
+    public void setHardwareRendering(boolean enabled) {
+        hardwareRendering = enabled;
+        requestFullRedraw();
+    }
+
+    public boolean useHardwareCanvas() {
+        return hardwareRendering && !hardwareUnavailable && !partialRedraw;
+    }
+
+    void onHardwareCanvasUnavailable(Exception e) {
+        hardwareUnavailable = true;
+        Log.w("GameView", "Hardware canvas unavailable, using software: " + e.getMessage());
+    }
+
+    public RenderBackendStats getBackendStats() {
+        return backendStats;
+    }
+
+    // Tiempos medios de frame de cada backend medidos en este dispositivo
+    public String getFrameTimeComparison() {
+        return backendStats.summary();
+    }
+
+    public FrameStats getFrameStats() {
+        return frameStats;
+    }
+
+    public void setDebugOverlay(boolean enabled) {
+        debugOverlay = enabled;
+        overlayRefreshedAt = 0;
+        requestFullRedraw();
+    }
+
+    // Vuelca los tiempos acumulados a logcat y los devuelve
+    public String dumpFrameStats() {
+        String dump = frameStats.dump() + "\nbitmaps " + bitmapMemory.summary();
+        Log.i("GameView", "Frame stats:\n" + dump);
+        return dump;
+    }
+
+    // Curva de velocidad (SpeedCurve.DEFAULT o SPEED_RUN); se aplica desde el siguiente tick
+    public void setSpeedCurve(SpeedCurve speedCurve) {
+        simulation.setSpeedCurve(speedCurve);
+    }
+
+    // El piloto automático juega en lugar del jugador (ver Autopilot)
+    public void setDemoMode(boolean enabled) {
+        simulation.setAutopilot(enabled);
+        wakeSimulation();
+    }
+
+    public boolean isDemoMode() {
+        return simulation.isAutopilot();
     }
 
+    // Se aplica en el hilo de simulación antes de su siguiente tick
     public void restartGame() {
-        snake.clear();
-        snake.add(new Point(4, 5));
-        snake.add(new Point(3, 5));
-        snake.add(new Point(2, 5));
-        snake.add(new Point(1, 5));
-        direction = Direction.RIGHT;
-        pendingDirection = null;
-        score = 0;
-        gameOver = false;
-        spawnQuizAndFoods();
-        updateTextViews();
-    }
-
-    private void spawnQuizAndFoods() {
-        Random rand = new Random();
-        questionA = rand.nextInt(9) + 1;
-        questionB = rand.nextInt(9) + 1;
-        operation = rand.nextBoolean() ? "+" : "-";
-        correctAnswer = operation.equals("+") ? questionA + questionB : questionA - questionB;
-
-        if (foodBitmaps == null || foodBitmaps.length == 0) {
-            createFallbackBitmaps();
-        }
-
-        correctFood = new FoodItem(getRandomFreePoint(), correctAnswer, true, foodBitmaps[Math.abs(correctAnswer) % foodBitmaps.length]);
-
-        wrongFoods.clear();
-        for (int i = 0; i < 2; i++) {
-            int wrongVal;
-            do {
-                wrongVal = correctAnswer + (rand.nextInt(5) - 2);
-            } while (wrongVal == correctAnswer);
-            wrongFoods.add(new FoodItem(getRandomFreePoint(), wrongVal, false, foodBitmaps[Math.abs(wrongVal) % foodBitmaps.length]));
-        }
-
-        if (rand.nextInt(5) == 0) {
-            bonusFood = new FoodItem(getRandomFreePoint(), bonusValue, true, foodBitmaps[rand.nextInt(foodBitmaps.length)]);
-        } else {
-            bonusFood = null;
-        }
-    }
-
-    private Point getRandomFreePoint() {
-        Random rand = new Random();
-        Point p;
-        boolean occupied;
-        do {
-            p = new Point(rand.nextInt(numCells), rand.nextInt(numCells));
-            occupied = snakeContains(p);
-            if (!occupied && correctFood != null && p.equals(correctFood.position)) occupied = true;
-            if (!occupied) {
-                for (FoodItem food : wrongFoods) {
-                    if (food.position.equals(p)) {
-                        occupied = true;
-                        break;
-                    }
-                }
-            }
-            if (!occupied && bonusFood != null && p.equals(bonusFood.position)) occupied = true;
-        } while (occupied);
-        return p;
+        simulation.requestRestart();
+        wakeSimulation();
     }
 
-    private boolean snakeContains(Point p) {
-        for (Point s : snake) if (s.equals(p)) return true;
-        return false;
+    private void wakeSimulation() {
+        SimulationThread t = simulationThread;
+        if (t != null) t.wake();
+    }
+
+    // Saca al render del reposo: entrada, instantánea nueva u otro cambio que haya que pintar
+    void wakeRender() {
+        GameThread t = thread;
+        if (t != null) t.wake();
+    }
+
+    private void requestFullRedraw() {
+        fullRedraw = true;
+        wakeRender();
+    }
+
+    // Cuánto puede esperar el render antes del siguiente frame (hilo de render, tras dibujar uno):
+    // 0 mientras la serpiente se mueve o hay algo pendiente. En game over solo cambia el pulso
+    // del texto de reinicio, a ritmo bajo; con la partida quieta, hasta que llegue otra instantánea.
+    // Cualquier cambio llama a wakeRender(), así que esperar de más no retrasa nada.
+    public long idleDelayNanos(long nowNanos) {
+        if (frame == null || fullRedraw || hudLayer.isDirty()) return 0;
+        if (simulation.getPublishedSerial() != lastFrameSerial) return 0;
+        long delay;
+        if (frame.isGameOver()) {
+            delay = IDLE_PULSE_NANOS;
+        } else if (frame.isLastTickMoved() && interpolationAt(nowNanos) < 1f) {
+            return 0;
+        } else {
+            delay = IDLE_MAX_NANOS;
+        }
+        if (debugOverlay) delay = Math.min(delay, OVERLAY_REFRESH_NANOS);
+        return delay;
     }
 
     @Override
     public void draw(Canvas canvas) {
+        draw(canvas, 1f);
+    }
+
+    // Toma la última instantánea y la dibuja
+    public void draw(Canvas canvas, float interpolation) {
+        acquireFrame();
+        drawFrame(canvas, interpolation);
+    }
+
+    // Fracción [0, 1] del tick en curso según el momento del último tick publicado
+    public float interpolationAt(long nowNanos) {
+        if (frame == null) return 1f;
+        // La duración del tick depende de la puntuación: la trae la instantánea
+        float t = (nowNanos - frame.getTickTimeNanos()) / (float) Math.max(1, frame.getTickIntervalNanos());
+        return Math.max(0f, Math.min(1f, t));
+    }
+
+    // Dibuja la instantánea tomada en beginFrame (hilo de render).
+    // interpolation: fracción [0, 1] del tick en curso, para suavizar cabeza y cola entre ticks
+    public void drawFrame(Canvas canvas, float interpolation) {
         super.draw(canvas);
-        if (canvas == null) return;
+        if (canvas == null || frame == null) return;
+        float t = frame.isLastTickMoved() ? interpolation : 1f;
+        // Geometría y recursos (normalmente ya calculados en onSizeChanged/surfaceChanged)
+        updateLayout(canvas.getWidth(), canvas.getHeight());
 
         // Fondo
         canvas.drawColor(Color.rgb(15, 25, 45));
 
         // Estrellas
-        Paint starPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
-        for (Star s : stars) {
-            int starColor;
-            if (s.alpha > 0.8f) starColor = Color.rgb(255, 255, 200);
-            else if (s.alpha > 0.6f) starColor = Color.rgb(220, 220, 255);
-            else starColor = Color.rgb(255, 255, 255);
-            starPaint.setColor(starColor);
-            starPaint.setAlpha((int) (s.alpha * 255));
-            float starSize = s.alpha > 0.7f ? 3f : 2f;
-            canvas.drawCircle(s.x, s.y, starSize, starPaint);
-        }
+        starField.draw(canvas);
 
         // Caja de pregunta/operación sobre estrellas
         drawQuestionArea(canvas);
 
-        // Cuadrícula
-        int availableWidth = canvas.getWidth() - 32;
-        int availableHeight = canvas.getHeight() - 380; // espacio para la caja grande
-        int cellSizeDynamic = Math.min(availableWidth / numCells, availableHeight / numCells);
-        int gridWidth = cellSizeDynamic * numCells;
-        int gridHeight = cellSizeDynamic * numCells;
-        int offsetX = (canvas.getWidth() - gridWidth) / 2;
-        int offsetY = ((canvas.getHeight() - gridHeight) / 2) + 190;
-
-        if (gridBackground != null) {
-            Bitmap scaledGrid = Bitmap.createScaledBitmap(gridBackground, gridWidth, gridHeight, false);
-            canvas.drawBitmap(scaledGrid, offsetX, offsetY, null);
-        } else {
-            Paint cellPaint = new Paint();
-            cellPaint.setColor(Color.rgb(198, 255, 198));
-            for (int row = 0; row < numCells; row++) {
-                for (int col = 0; col < numCells; col++) {
-                    int x = offsetX + col * cellSizeDynamic;
-                    int y = offsetY + row * cellSizeDynamic;
-                    canvas.drawRect(x, y, x + cellSizeDynamic, y + cellSizeDynamic, cellPaint);
-                }
-            }
-        }
+        // Tablero, limitado a la ventana visible de la cámara
+        SpriteCache.ScaledSprites scaled = spritesFor(canvas);
+        if (scaled == null) return;
+        drawBoard(canvas, scaled, t);
 
-        // Serpiente
-        if (!snake.isEmpty()) {
-            for (int i = 0; i < snake.size(); i++) {
-                Point segment = snake.get(i);
-                int x = offsetX + segment.x * cellSizeDynamic;
-                int y = offsetY + segment.y * cellSizeDynamic;
-
-                Bitmap segmentBitmap;
-                if (i == 0) {
-                    switch (direction) {
-                        case UP: segmentBitmap = head_up; break;
-                        case DOWN: segmentBitmap = head_down; break;
-                        case LEFT: segmentBitmap = head_left; break;
-                        case RIGHT: segmentBitmap = head_right; break;
-                        default: segmentBitmap = head_right; break;
-                    }
-                } else if (i == snake.size() - 1) {
-                    Point prev = snake.get(i - 1);
-                    if (prev.x > segment.x) segmentBitmap = tail_right;
-                    else if (prev.x < segment.x) segmentBitmap = tail_left;
-                    else if (prev.y > segment.y) segmentBitmap = tail_down;
-                    else segmentBitmap = tail_up;
-                } else {
-                    Point prev = snake.get(i - 1);
-                    Point next = snake.get(i + 1);
-                    if (prev.x == next.x) segmentBitmap = body_vertical;
-                    else if (prev.y == next.y) segmentBitmap = body_horizontal;
-                    else if ((prev.x < segment.x && next.y < segment.y) || (next.x < segment.x && prev.y < segment.y))
-                        segmentBitmap = body_topleft;
-                    else if ((prev.x > segment.x && next.y < segment.y) || (next.x > segment.x && prev.y < segment.y))
-                        segmentBitmap = body_topright;
-                    else if ((prev.x < segment.x && next.y > segment.y) || (next.x < segment.x && prev.y > segment.y))
-                        segmentBitmap = body_bottomleft;
-                    else segmentBitmap = body_bottomright;
-                }
-                canvas.drawBitmap(Bitmap.createScaledBitmap(segmentBitmap, cellSizeDynamic, cellSizeDynamic, false), x, y, null);
-            }
-        }
+        // Game Over + botón volver al menú
+        if (frame.isGameOver()) {
+            RenderResources r = renderResources;
+            float centerX = getWidth() / 2;
+            float centerY = getHeight() / 2;
+            canvas.drawRect(0, 0, getWidth(), getHeight(), r.overlayPaint);
 
-        // Alimentos
-        drawFood(canvas, correctFood, offsetX, offsetY, cellSizeDynamic);
-        for (FoodItem wf : wrongFoods) drawFood(canvas, wf, offsetX, offsetY, cellSizeDynamic);
-        if (bonusFood != null) drawFood(canvas, bonusFood, offsetX, offsetY, cellSizeDynamic);
+            r.drawGameOverGlow(canvas, centerX, centerY - 80);
+            canvas.drawText("GAME OVER", centerX, centerY - 80, r.gameOverBorderPaint);
+            canvas.drawText("GAME OVER", centerX, centerY - 80, r.gameOverPaint);
 
-        // Game Over + botón volver al menú
-        if (gameOver) {
-            Paint overlayPaint = new Paint();
-            overlayPaint.setColor(Color.argb(220, 10, 15, 30));
-            canvas.drawRect(0, 0, getWidth(), getHeight(), overlayPaint);
-
-            Paint glowPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
-            glowPaint.setColor(Color.argb(100, 255, 100, 100));
-            glowPaint.setTextSize(90f);
-            glowPaint.setFakeBoldText(true);
-            glowPaint.setTextAlign(Paint.Align.CENTER);
-            glowPaint.setMaskFilter(new BlurMaskFilter(15, BlurMaskFilter.Blur.NORMAL));
-            canvas.drawText("GAME OVER", getWidth() / 2, getHeight() / 2 - 80, glowPaint);
-
-            Paint gameOverPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
-            gameOverPaint.setColor(Color.rgb(255, 80, 80));
-            gameOverPaint.setTextSize(85f);
-            gameOverPaint.setFakeBoldText(true);
-            gameOverPaint.setTextAlign(Paint.Align.CENTER);
-            gameOverPaint.setTypeface(Typeface.create(Typeface.DEFAULT, Typeface.BOLD));
-            gameOverPaint.setShadowLayer(8, 4, 4, Color.argb(200, 0, 0, 0));
-
-            Paint borderPaint = new Paint(gameOverPaint);
-            borderPaint.setStyle(Paint.Style.STROKE);
-            borderPaint.setStrokeWidth(6f);
-            borderPaint.setColor(Color.rgb(120, 20, 20));
-
-            canvas.drawText("GAME OVER", getWidth() / 2, getHeight() / 2 - 80, borderPaint);
-            canvas.drawText("GAME OVER", getWidth() / 2, getHeight() / 2 - 80, gameOverPaint);
-
-            Paint scorePanelPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
-            scorePanelPaint.setColor(Color.argb(180, 20, 30, 50));
             float panelWidth = 300f;
             float panelHeight = 80f;
             float panelX = (getWidth() - panelWidth) / 2;
-            float panelY = getHeight() / 2 - 20;
-
-            canvas.drawRoundRect(panelX, panelY, panelX + panelWidth, panelY + panelHeight, 20f, 20f, scorePanelPaint);
-
-            Paint panelBorderPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
-            panelBorderPaint.setStyle(Paint.Style.STROKE);
-            panelBorderPaint.setStrokeWidth(3f);
-            panelBorderPaint.setColor(Color.rgb(100, 150, 255));
-            canvas.drawRoundRect(panelX, panelY, panelX + panelWidth, panelY + panelHeight, 20f, 20f, panelBorderPaint);
-
-            Paint scorePaint = new Paint(Paint.ANTI_ALIAS_FLAG);
-            scorePaint.setColor(Color.rgb(255, 255, 150));
-            scorePaint.setTextSize(36f);
-            scorePaint.setTextAlign(Paint.Align.CENTER);
-            scorePaint.setTypeface(Typeface.create(Typeface.DEFAULT, Typeface.BOLD));
-            scorePaint.setShadowLayer(4, 2, 2, Color.BLACK);
-            canvas.drawText("Final Score: " + score, getWidth() / 2, getHeight() / 2 + 25, scorePaint);
-
-            Paint restartPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
-            restartPaint.setColor(Color.rgb(150, 255, 150));
-            restartPaint.setTextSize(32f);
-            restartPaint.setTextAlign(Paint.Align.CENTER);
-            restartPaint.setTypeface(Typeface.create(Typeface.DEFAULT, Typeface.BOLD));
-            restartPaint.setShadowLayer(4, 2, 2, Color.BLACK);
+            float panelY = centerY - 20;
+            canvas.drawRoundRect(panelX, panelY, panelX + panelWidth, panelY + panelHeight, 20f, 20f, r.scorePanelPaint);
+            canvas.drawRoundRect(panelX, panelY, panelX + panelWidth, panelY + panelHeight, 20f, 20f, r.panelBorderPaint);
+
+            canvas.drawText(finalScoreText, centerX, centerY + 25, r.finalScorePaint);
+
             long time = System.currentTimeMillis();
             float pulse = (float) (0.8f + 0.2f * Math.sin(time * 0.005f));
-            restartPaint.setAlpha((int) (255 * pulse));
-            canvas.drawText("🎮 TAP TO RESTART 🎮", getWidth() / 2, getHeight() / 2 + 120, restartPaint);
+            r.restartPaint.setAlpha((int) (255 * pulse));
+            canvas.drawText("🎮 TAP TO RESTART 🎮", centerX, centerY + 120, r.restartPaint);
 
             // Botón Back to Menu
             drawBackToMenuButton(canvas);
 
             // Líneas decorativas
-            Paint decorPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
-            decorPaint.setColor(Color.rgb(100, 150, 255));
-            decorPaint.setStrokeWidth(4f);
-            decorPaint.setPathEffect(new DashPathEffect(new float[]{10, 5}, 0));
-            canvas.drawLine(50, getHeight() / 2 - 180, getWidth() - 50, getHeight() / 2 - 180, decorPaint);
-            canvas.drawLine(50, getHeight() / 2 + 280, getWidth() - 50, getHeight() / 2 + 280, decorPaint);
+            canvas.drawLine(50, centerY - 180, getWidth() - 50, centerY - 180, r.decorPaint);
+            canvas.drawLine(50, centerY + 280, getWidth() - 50, centerY + 280, r.decorPaint);
 
             // Estrellas decorativas
-            Paint starDecorPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
-            starDecorPaint.setColor(Color.rgb(255, 215, 0));
-            starDecorPaint.setTextSize(24f);
-            starDecorPaint.setTextAlign(Paint.Align.CENTER);
-            canvas.drawText("⭐", getWidth() / 2 - 150, getHeight() / 2 - 120, starDecorPaint);
-            canvas.drawText("⭐", getWidth() / 2 + 150, getHeight() / 2 - 120, starDecorPaint);
-            canvas.drawText("⭐", getWidth() / 2 - 120, getHeight() / 2 + 230, starDecorPaint);
-            canvas.drawText("⭐", getWidth() / 2 + 120, getHeight() / 2 + 230, starDecorPaint);
+            canvas.drawText("⭐", centerX - 150, centerY - 120, r.starDecorPaint);
+            canvas.drawText("⭐", centerX + 150, centerY - 120, r.starDecorPaint);
+            canvas.drawText("⭐", centerX - 120, centerY + 230, r.starDecorPaint);
+            canvas.drawText("⭐", centerX + 120, centerY + 230, r.starDecorPaint);
         }
+
+        if (debugOverlay) drawDebugOverlay(canvas);
     }
 
-    // Caja de operaciones centrada, más abajo y más grande. Muestra Score y Best.
+    private void drawDebugOverlay(Canvas canvas) {
+        long now = System.nanoTime();
+        if (overlayLines[0] == null || now - overlayRefreshedAt >= OVERLAY_REFRESH_NANOS) {
+            frameStats.formatOverlay(overlayLines);
+            overlayRefreshedAt = now;
+        }
+        RenderResources r = renderResources;
+        float lineHeight = r.debugTextPaint.getTextSize() * 1.3f;
+        float top = 16f;
+        canvas.drawRect(8f, top, canvas.getWidth() - 8f, top + lineHeight * overlayLines.length + 12f, r.debugBgPaint);
+        for (int i = 0; i < overlayLines.length; i++) {
+            canvas.drawText(overlayLines[i], 20f, top + lineHeight * (i + 1), r.debugTextPaint);
+        }
+    }
+
+    // Dibuja la cuadrícula, la serpiente y la comida que caen dentro de la ventana visible.
+    // El coste depende del tamaño de la ventana, no del tablero ni de la longitud de la serpiente.
+    private void drawBoard(Canvas canvas, SpriteCache.ScaledSprites scaled, float t) {
+        int cell = cellSizeDynamic;
+        GameSnapshot grid = frame;
+        int last = grid.getLength() - 1;
+
+        // Cabeza y cola interpoladas entre ticks, en celdas
+        int head = grid.getHead();
+        int headX = SnakeBody.unpackX(head), headY = SnakeBody.unpackY(head);
+        float headFx = headX, headFy = headY;
+        if (last > 0) {
+            // La cabeza avanza desde la celda del cuello hacia su celda
+            int neck = grid.getNeck();
+            int neckX = SnakeBody.unpackX(neck), neckY = SnakeBody.unpackY(neck);
+            headFx = neckX + (headX - neckX) * t;
+            headFy = neckY + (headY - neckY) * t;
+        }
+        int tail = grid.getTail();
+        int tailX = SnakeBody.unpackX(tail), tailY = SnakeBody.unpackY(tail);
+        // La cola abandona su celda anterior
+        int previousTail = grid.getPreviousTail();
+        int prevTailX = SnakeBody.unpackX(previousTail), prevTailY = SnakeBody.unpackY(previousTail);
+        float tailFx = prevTailX + (tailX - prevTailX) * t;
+        float tailFy = prevTailY + (tailY - prevTailY) * t;
+
+        // Cámara centrada en la cabeza y limitada a los bordes del tablero
+        cameraX = clamp((headFx + 0.5f) * cell - viewWidth / 2f, 0, boardPixelWidth - viewWidth);
+        cameraY = clamp((headFy + 0.5f) * cell - viewHeight / 2f, 0, boardPixelHeight - viewHeight);
+        int camX = Math.round(cameraX);
+        int camY = Math.round(cameraY);
+
+        canvas.save();
+        canvas.clipRect(offsetX, offsetY, offsetX + viewWidth, offsetY + viewHeight);
+        // A partir de aquí se dibuja en píxeles del tablero
+        canvas.translate(offsetX - camX, offsetY - camY);
+
+        // Cuadrícula
+        Paint gridPaint = scaled.grid != null ? renderResources.gridPaint : renderResources.cellPaint;
+        canvas.drawRect(camX, camY, camX + viewWidth, camY + viewHeight, gridPaint);
+
+        // Celdas visibles
+        int firstCol = camX / cell;
+        int lastCol = Math.min(grid.getWidth() - 1, (camX + viewWidth - 1) / cell);
+        int firstRow = camY / cell;
+        int lastRow = Math.min(grid.getHeight() - 1, (camY + viewHeight - 1) / cell);
+
+        // Cuerpo: se recorren las casillas visibles, no la serpiente entera
+        int headIndex = grid.index(headX, headY);
+        int tailIndex = grid.index(tailX, tailY);
+        for (int row = firstRow; row <= lastRow; row++) {
+            for (int col = firstCol; col <= lastCol; col++) {
+                int index = grid.index(col, row);
+                if (grid.get(index) != OccupancyGrid.SNAKE || index == headIndex || index == tailIndex) continue;
+                drawSprite(canvas, scaled, bodySprite(grid, index), col * cell, row * cell, cell);
+            }
+        }
+        if (last > 0) {
+            drawSprite(canvas, scaled, tailSprite(grid.linkOut(tailIndex)), tailFx * cell, tailFy * cell, cell);
+        }
+        drawSprite(canvas, scaled, headSprite(grid.getDirection()), headFx * cell, headFy * cell, cell);
+
+        // Alimentos
+        drawFood(canvas, grid.getCorrectFood(), scaled, firstCol, lastCol, firstRow, lastRow, cell);
+        for (int i = 0; i < grid.getWrongFoodCount(); i++) {
+            drawFood(canvas, grid.getWrongFood(i), scaled, firstCol, lastCol, firstRow, lastRow, cell);
+        }
+        drawFood(canvas, grid.getBonusFood(), scaled, firstCol, lastCol, firstRow, lastRow, cell);
+
+        canvas.restore();
+    }
+
+    private static float clamp(float value, float min, float max) {
+        return value < min ? min : Math.min(value, max);
+    }
+
+    private static int headSprite(Direction direction) {
+        switch (direction) {
+            case UP: return SpriteCache.HEAD_UP;
+            case DOWN: return SpriteCache.HEAD_DOWN;
+            case LEFT: return SpriteCache.HEAD_LEFT;
+            default: return SpriteCache.HEAD_RIGHT;
+        }
+    }
+
+    // La cola apunta hacia el segmento siguiente (lado de la cabeza)
+    private static int tailSprite(Direction out) {
+        switch (out) {
+            case RIGHT: return SpriteCache.TAIL_RIGHT;
+            case LEFT: return SpriteCache.TAIL_LEFT;
+            case DOWN: return SpriteCache.TAIL_DOWN;
+            default: return SpriteCache.TAIL_UP;
+        }
+    }
+
+    // Sprite de un segmento del cuerpo según sus vecinos: p hacia la cabeza, n hacia la cola
+    private static int bodySprite(GameSnapshot grid, int index) {
+        Direction in = grid.linkIn(index);
+        Direction out = grid.linkOut(index);
+        int pdx = out.dx, pdy = out.dy;
+        int ndx = -in.dx, ndy = -in.dy;
+        if (pdx == ndx) return SpriteCache.BODY_VERTICAL;
+        if (pdy == ndy) return SpriteCache.BODY_HORIZONTAL;
+        if ((pdx < 0 && ndy < 0) || (ndx < 0 && pdy < 0)) return SpriteCache.BODY_TOPLEFT;
+        if ((pdx > 0 && ndy < 0) || (ndx > 0 && pdy < 0)) return SpriteCache.BODY_TOPRIGHT;
+        if ((pdx < 0 && ndy > 0) || (ndx < 0 && pdy > 0)) return SpriteCache.BODY_BOTTOMLEFT;
+        return SpriteCache.BODY_BOTTOMRIGHT;
+    }
+
+    // Copia la caja de pregunta desde su capa, recomponiéndola antes si está sucia
     private void drawQuestionArea(Canvas canvas) {
-        float questionAreaHeight = 320f;
-        float questionAreaWidth = canvas.getWidth() * 0.9f;
-
-        float centerX = canvas.getWidth() / 2f;
-        float centerY = questionAreaHeight / 2f + 120f;
-
-        float left = centerX - (questionAreaWidth / 2f);
-        float top = centerY - (questionAreaHeight / 2f);
-        float right = centerX + (questionAreaWidth / 2f);
-        float bottom = centerY + (questionAreaHeight / 2f);
-
-        // Fondo con gradiente
-        Paint questionBgPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
-        LinearGradient gradient = new LinearGradient(
-                left, top, left, bottom,
-                new int[]{ Color.argb(250, 35, 45, 65), Color.argb(250, 20, 30, 50) },
-                null,
-                Shader.TileMode.CLAMP
-        );
-        questionBgPaint.setShader(gradient);
-
-        RectF rect = new RectF(left, top, right, bottom);
-        canvas.drawRoundRect(rect, 35f, 35f, questionBgPaint);
-
-        // Bordes
-        Paint borderPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
-        borderPaint.setStyle(Paint.Style.STROKE);
-        borderPaint.setStrokeWidth(8f);
-        borderPaint.setColor(Color.argb(240, 100, 150, 255));
-        canvas.drawRoundRect(rect, 35f, 35f, borderPaint);
-
-        Paint innerBorderPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
-        innerBorderPaint.setStyle(Paint.Style.STROKE);
-        innerBorderPaint.setStrokeWidth(3f);
-        innerBorderPaint.setColor(Color.argb(150, 180, 200, 255));
-        RectF innerRect = new RectF(left + 4, top + 4, right - 4, bottom - 4);
-        canvas.drawRoundRect(innerRect, 31f, 31f, innerBorderPaint);
+        RectF rect = renderResources.questionRect;
+        float left = rect.left - HUD_LAYER_MARGIN;
+        float top = rect.top - HUD_LAYER_MARGIN;
+        if (!hudLayer.isReady()) {
+            // Liberada por trimMemory (o aún sin tamaño): se vuelve a crear al dibujar
+            hudLayer.setSize(Math.round(rect.width()) + 2 * HUD_LAYER_MARGIN,
+                    Math.round(rect.height()) + 2 * HUD_LAYER_MARGIN);
+            if (!hudLayer.isReady()) {
+                drawQuestionBox(canvas);
+                return;
+            }
+        }
+        Canvas layerCanvas = hudLayer.beginRedraw();
+        if (layerCanvas != null) {
+            layerCanvas.save();
+            layerCanvas.translate(-left, -top);
+            drawQuestionBox(layerCanvas);
+            layerCanvas.restore();
+        }
+        hudLayer.draw(canvas, left, top);
+    }
 
-        // Pregunta
-        Paint questionTextPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
-        questionTextPaint.setColor(Color.rgb(255, 255, 230));
-        questionTextPaint.setTextSize(64f);
-        questionTextPaint.setTextAlign(Paint.Align.CENTER);
-        questionTextPaint.setTypeface(Typeface.create(Typeface.DEFAULT, Typeface.BOLD));
-        questionTextPaint.setShadowLayer(10, 4, 4, Color.argb(220, 0, 0, 0));
+    // Caja de operaciones centrada, más abajo y más grande. Muestra Score y Best.
+    private void drawQuestionBox(Canvas canvas) {
+        RenderResources r = renderResources;
+        RectF rect = r.questionRect;
+        float questionAreaWidth = rect.width();
+        float centerX = rect.centerX();
+        float centerY = rect.centerY();
+
+        // Fondo con gradiente y bordes
+        canvas.drawRoundRect(rect, 35f, 35f, r.questionBgPaint);
+        canvas.drawRoundRect(rect, 35f, 35f, r.questionBorderPaint);
+        canvas.drawRoundRect(r.questionInnerRect, 31f, 31f, r.questionInnerBorderPaint);
 
-        String questionText = "Q: " + questionA + " " + operation + " " + questionB + " = ?";
-        canvas.drawText(questionText, centerX, centerY - 60f, questionTextPaint);
+        // Pregunta
+        canvas.drawText(questionText, centerX, centerY - 60f, r.questionTextPaint);
 
         // Separador
-        Paint separatorPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
-        separatorPaint.setColor(Color.argb(180, 100, 150, 255));
-        separatorPaint.setStrokeWidth(4f);
         float separatorLeft = centerX - (questionAreaWidth * 0.35f);
         float separatorRight = centerX + (questionAreaWidth * 0.35f);
-        canvas.drawLine(separatorLeft, centerY - 10f, separatorRight, centerY - 10f, separatorPaint);
-
-        // Score actual (izquierda)
-        Paint scorePaint = new Paint(Paint.ANTI_ALIAS_FLAG);
-        scorePaint.setColor(Color.rgb(180, 255, 180));
-        scorePaint.setTextSize(40f);
-        scorePaint.setTextAlign(Paint.Align.LEFT);
-        scorePaint.setTypeface(Typeface.create(Typeface.DEFAULT, Typeface.BOLD));
-        scorePaint.setShadowLayer(8, 3, 3, Color.argb(200, 0, 0, 0));
-        canvas.drawText("Score: " + score, centerX - (questionAreaWidth * 0.3f), centerY + 40f, scorePaint);
-
-        // High Score (derecha)
-        Paint highScorePaint = new Paint(Paint.ANTI_ALIAS_FLAG);
-        highScorePaint.setColor(Color.rgb(255, 215, 0));
-        highScorePaint.setTextSize(40f);
-        highScorePaint.setTextAlign(Paint.Align.RIGHT);
-        highScorePaint.setTypeface(Typeface.create(Typeface.DEFAULT, Typeface.BOLD));
-        highScorePaint.setShadowLayer(8, 3, 3, Color.argb(200, 0, 0, 0));
-        canvas.drawText("Best: " + highScore, centerX + (questionAreaWidth * 0.3f), centerY + 40f, highScorePaint);
+        canvas.drawLine(separatorLeft, centerY - 10f, separatorRight, centerY - 10f, r.separatorPaint);
+
+        // Score actual (izquierda) y High Score (derecha)
+        canvas.drawText(scoreText, centerX - (questionAreaWidth * 0.3f), centerY + 40f, r.scorePaint);
+        canvas.drawText(highScoreText, centerX + (questionAreaWidth * 0.3f), centerY + 40f, r.highScorePaint);
 
         // Efecto glow
-        Paint glowPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
-        glowPaint.setColor(Color.argb(60, 255, 255, 255));
-        glowPaint.setStyle(Paint.Style.STROKE);
-        glowPaint.setStrokeWidth(2f);
-        RectF glowRect = new RectF(left + 2, top + 2, right - 2, bottom - 2);
-        canvas.drawRoundRect(glowRect, 33f, 33f, glowPaint);
+        canvas.drawRoundRect(r.questionGlowRect, 33f, 33f, r.questionGlowPaint);
 
         // Puntos en esquinas
-        Paint dotPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
-        dotPaint.setColor(Color.argb(200, 150, 200, 255));
         float dotSize = 12f;
-        canvas.drawCircle(left + 30f, top + 30f, dotSize, dotPaint);
-        canvas.drawCircle(right - 30f, top + 30f, dotSize, dotPaint);
-        canvas.drawCircle(left + 30f, bottom - 30f, dotSize, dotPaint);
-        canvas.drawCircle(right - 30f, bottom - 30f, dotSize, dotPaint);
+        canvas.drawCircle(rect.left + 30f, rect.top + 30f, dotSize, r.dotPaint);
+        canvas.drawCircle(rect.right - 30f, rect.top + 30f, dotSize, r.dotPaint);
+        canvas.drawCircle(rect.left + 30f, rect.bottom - 30f, dotSize, r.dotPaint);
+        canvas.drawCircle(rect.right - 30f, rect.bottom - 30f, dotSize, r.dotPaint);
     }
 
     // Botón Back to Menu
     private void drawBackToMenuButton(Canvas canvas) {
+        RenderResources r = renderResources;
         float buttonWidth = canvas.getWidth() * 0.6f;
         float buttonHeight = 70f;
         float buttonLeft = (canvas.getWidth() - buttonWidth) / 2f;
@@ -613,207 +948,92 @@ public class GameView extends SurfaceView implements SurfaceHolder.Callback {
 
         backToMenuButton.set(buttonLeft, buttonTop, buttonLeft + buttonWidth, buttonTop + buttonHeight);
 
-        Paint buttonBgPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
-        LinearGradient buttonGradient = new LinearGradient(
-                buttonLeft, buttonTop, buttonLeft, buttonTop + buttonHeight,
-                new int[]{ Color.argb(255, 70, 130, 180), Color.argb(255, 50, 100, 150) },
-                null,
-                Shader.TileMode.CLAMP
-        );
-        buttonBgPaint.setShader(buttonGradient);
-        canvas.drawRoundRect(backToMenuButton, 25f, 25f, buttonBgPaint);
-
-        Paint buttonBorderPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
-        buttonBorderPaint.setStyle(Paint.Style.STROKE);
-        buttonBorderPaint.setStrokeWidth(4f);
-        buttonBorderPaint.setColor(Color.argb(255, 100, 150, 200));
-        canvas.drawRoundRect(backToMenuButton, 25f, 25f, buttonBorderPaint);
-
-        Paint buttonTextPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
-        buttonTextPaint.setColor(Color.WHITE);
-        buttonTextPaint.setTextSize(38f);
-        buttonTextPaint.setTextAlign(Paint.Align.CENTER);
-        buttonTextPaint.setTypeface(Typeface.create(Typeface.DEFAULT, Typeface.BOLD));
-        buttonTextPaint.setShadowLayer(4, 2, 2, Color.argb(150, 0, 0, 0));
+        canvas.drawRoundRect(backToMenuButton, 25f, 25f, r.buttonBgPaint);
+        canvas.drawRoundRect(backToMenuButton, 25f, 25f, r.buttonBorderPaint);
 
         float textX = backToMenuButton.centerX();
-        float textY = backToMenuButton.centerY() + (buttonTextPaint.getTextSize() / 3f);
-        canvas.drawText("🏠 BACK TO MENU", textX, textY, buttonTextPaint);
-
-        Paint glowPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
-        glowPaint.setColor(Color.argb(40, 255, 255, 255));
-        glowPaint.setStyle(Paint.Style.STROKE);
-        glowPaint.setStrokeWidth(2f);
-        RectF glowRect = new RectF(
-                backToMenuButton.left + 2,
-                backToMenuButton.top + 2,
-                backToMenuButton.right - 2,
-                backToMenuButton.bottom - 2
-        );
-        canvas.drawRoundRect(glowRect, 23f, 23f, glowPaint);
-    }
-
-    // Dibuja la comida con sombra orgánica y número superpuesto
-    private void drawFood(Canvas canvas, FoodItem food, int offsetX, int offsetY, int cellSize) {
+        float textY = backToMenuButton.centerY() + (r.buttonTextPaint.getTextSize() / 3f);
+        canvas.drawText("🏠 BACK TO MENU", textX, textY, r.buttonTextPaint);
+
+        canvas.drawRoundRect(r.buttonGlowRect, 23f, 23f, r.buttonGlowPaint);
+    }
+
+    // Copia un sprite del atlas escalado a su tamaño real, sin reescalar
+    private void drawSprite(Canvas canvas, SpriteCache.ScaledSprites scaled, int sprite, float left, float top, int size) {
+        spriteDst.set(left, top, left + size, top + size);
+        canvas.drawBitmap(scaled.atlas, scaled.src[sprite], spriteDst, null);
+    }
+
+    // Dibuja la comida con sombra orgánica y número superpuesto (en píxeles del tablero)
+    private void drawFood(Canvas canvas, FoodItem food, SpriteCache.ScaledSprites scaled,
+                          int firstCol, int lastCol, int firstRow, int lastRow, int cellSize) {
         if (food == null) return;
+        int col = food.position.x, row = food.position.y;
+        if (col < firstCol || col > lastCol || row < firstRow || row > lastRow) return;
+        RenderResources r = renderResources;
 
-        int x = offsetX + food.position.x * cellSize;
-        int y = offsetY + food.position.y * cellSize;
+        int x = col * cellSize;
+        int y = row * cellSize;
 
         int foodPadding = Math.max(1, cellSize / 50);
-        int foodSize = cellSize - (foodPadding * 2);
         int shadowOffset = Math.max(1, cellSize / 40);
 
-        Bitmap scaledFood = Bitmap.createScaledBitmap(food.bitmap, foodSize, foodSize, true);
-
-        // Sombra que sigue la forma del bitmap
-        Paint shadowPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
-        shadowPaint.setColorFilter(new ColorMatrixColorFilter(new ColorMatrix(new float[]{
-                0, 0, 0, 0, 0,
-                0, 0, 0, 0, 0,
-                0, 0, 0, 0, 0,
-                0, 0, 0, 0.30f, 0
-        })));
-        shadowPaint.setMaskFilter(new BlurMaskFilter(Math.max(1f, cellSize * 0.05f), BlurMaskFilter.Blur.NORMAL));
-        canvas.drawBitmap(scaledFood, x + foodPadding + shadowOffset, y + foodPadding + shadowOffset, shadowPaint);
-
-        // Comida
-        canvas.drawBitmap(scaledFood, x + foodPadding, y + foodPadding, null);
+        // Sombra que sigue la forma del bitmap (horneada en SpriteCache) y comida
+        Bitmap foodShadow = scaled.foodShadows[food.variant];
+        if (foodShadow != null) {
+            int shadowX = x + foodPadding + shadowOffset + scaled.foodShadowOffset;
+            int shadowY = y + foodPadding + shadowOffset + scaled.foodShadowOffset;
+            canvas.drawBitmap(foodShadow, shadowX, shadowY, r.foodShadowPaint);
+        }
+        drawSprite(canvas, scaled, SpriteCache.FOOD_FIRST + food.variant, x + foodPadding, y + foodPadding, scaled.foodSize);
 
         // Fondo para el número
-        Paint bgPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
-        if (food == bonusFood) {
-            bgPaint.setColor(Color.argb(200, 255, 193, 7));
+        if (food == frame.getBonusFood()) {
+            r.foodBgPaint.setColor(Color.argb(200, 255, 193, 7));
         } else {
-            bgPaint.setColor(Color.argb(180, 33, 33, 33));
+            r.foodBgPaint.setColor(Color.argb(180, 33, 33, 33));
         }
 
-        float bgWidth = cellSize * 0.40f;
-        float bgHeight = cellSize * 0.30f;
+        float bgWidth = cellSize * SpriteCache.BADGE_WIDTH;
+        float bgHeight = cellSize * SpriteCache.BADGE_HEIGHT;
         float bgX = x + (cellSize - bgWidth) / 2f;
         float bgY = y + (cellSize - bgHeight) / 2f;
         float cornerRadius = Math.max(4f, cellSize * 0.08f);
 
-        // Sombra suave del rect
-        Paint bgShadowPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
-        bgShadowPaint.setColor(Color.argb(80, 0, 0, 0));
-        bgShadowPaint.setMaskFilter(new BlurMaskFilter(Math.max(1f, cellSize * 0.02f), BlurMaskFilter.Blur.NORMAL));
-        canvas.drawRoundRect(bgX + 2, bgY + 2, bgX + bgWidth + 2, bgY + bgHeight + 2, cornerRadius, cornerRadius, bgShadowPaint);
-
-        // Rect principal y borde
-        canvas.drawRoundRect(bgX, bgY, bgX + bgWidth, bgY + bgHeight, cornerRadius, cornerRadius, bgPaint);
-        Paint borderPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
-        borderPaint.setColor(Color.argb(100, 255, 255, 255));
-        borderPaint.setStyle(Paint.Style.STROKE);
-        borderPaint.setStrokeWidth(Math.max(1f, cellSize * 0.015f));
-        canvas.drawRoundRect(bgX, bgY, bgX + bgWidth, bgY + bgHeight, cornerRadius, cornerRadius, borderPaint);
+        // Sombra suave del rect, rect principal y borde
+        canvas.drawBitmap(scaled.badgeShadow, bgX + 2 + scaled.badgeShadowOffset, bgY + 2 + scaled.badgeShadowOffset, r.foodBgShadowPaint);
+        canvas.drawRoundRect(bgX, bgY, bgX + bgWidth, bgY + bgHeight, cornerRadius, cornerRadius, r.foodBgPaint);
+        canvas.drawRoundRect(bgX, bgY, bgX + bgWidth, bgY + bgHeight, cornerRadius, cornerRadius, r.foodBorderPaint);
 
         // Número
-        Paint numberPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
-        numberPaint.setColor(Color.WHITE);
-        numberPaint.setTextSize(Math.max(14f, cellSize * 0.32f));
-        numberPaint.setTextAlign(Paint.Align.CENTER);
-        numberPaint.setTypeface(Typeface.create(Typeface.DEFAULT, Typeface.BOLD));
-        numberPaint.setShadowLayer(6, 0, 3, Color.argb(200, 0, 0, 0));
-
-        String numberText = String.valueOf(food.value);
         float textCenterX = bgX + bgWidth / 2f;
         float textCenterY = bgY + bgHeight / 2f;
-        Paint.FontMetrics fm = numberPaint.getFontMetrics();
+        Paint.FontMetrics fm = r.foodNumberMetrics;
         float textHeight = fm.descent - fm.ascent;
         float textY = textCenterY + (textHeight / 2f) - fm.descent;
 
-        canvas.drawText(numberText, textCenterX, textY, numberPaint);
+        canvas.drawText(food.label, textCenterX, textY, r.foodNumberPaint);
     }
 
+    // Un tick de simulación (hilo de simulación): órdenes pendientes, como mucho un giro de la
+    // cola y avance del motor, que publica la instantánea resultante
     public void update() {
-        if (gameOver) return;
-
-        // Parpadeo de estrellas
-        for (Star s : stars) {
-            float speed = 0.015f + (s.alpha * 0.01f);
-            if (s.increasing) {
-                s.alpha += speed;
-                if (s.alpha >= 1f) { s.alpha = 1f; s.increasing = false; }
-            } else {
-                s.alpha -= speed;
-                if (s.alpha <= 0.3f) { s.alpha = 0.3f; s.increasing = true; }
-            }
-        }
-
-        // Cambiar dirección pendiente si procede
-        if (pendingDirection != null && !direction.isOpposite(pendingDirection)) {
-            direction = pendingDirection;
-            pendingDirection = null;
-        }
-
-        // Nueva cabeza
-        Point head = new Point(snake.get(0));
-        switch (direction) {
-            case UP: head.y -= 1; break;
-            case DOWN: head.y += 1; break;
-            case LEFT: head.x -= 1; break;
-            case RIGHT: head.x += 1; break;
-        }
-
-        // Colisiones: Notificar Game Over a la Activity con el score (corrección para score)
-        if (head.x < 0 || head.y < 0 || head.x >= numCells || head.y >= numCells || snakeContains(head)) {
-            gameOver = true;
-            playSound(loseSound, "lose");
-            if (gameEventListener != null) {
-                gameEventListener.onGameOver(score);
-            }
-            return;
-        }
-
-        snake.add(0, head);
-
-        boolean foodEaten = false;
-        boolean wrongFoodEaten = false;
-
-        // Comida correcta
-        if (correctFood != null && head.equals(correctFood.position)) {
-            score++;
-            playSound(correctSound, "correct");
-            spawnQuizAndFoods();
-            updateTextViews();
-            foodEaten = true;
-        }
-
-        // Comida incorrecta
-        if (!foodEaten) {
-            for (FoodItem f : wrongFoods) {
-                if (head.equals(f.position)) {
-                    playSound(errorSound, "error");
-                    wrongFoodEaten = true;
-                    spawnQuizAndFoods();
-                    updateTextViews();
-                    break;
-                }
-            }
-        }
-
-        // Bonus
-        if (!foodEaten && !wrongFoodEaten && bonusFood != null && head.equals(bonusFood.position)) {
-            score += bonusValue;
-            playSound(bonusSound, "bonus");
-            bonusFood = null;
-            updateTextViews();
-            foodEaten = true;
-        }
+        long serial = simulation.getPublishedSerial();
+        long inputLatency = simulation.tick(System.nanoTime());
+        if (inputLatency >= 0) frameStats.recordInputLatency(inputLatency);
+        // Solo si publicó: un tick en game over no cambia nada que pintar
+        if (simulation.getPublishedSerial() != serial) wakeRender();
+    }
 
-        // Tamaño de serpiente según acción
-        if (wrongFoodEaten) {
-            if (snake.size() > 1) snake.remove(snake.size() - 1);
-            if (snake.size() > 1) snake.remove(snake.size() - 1);
-        } else if (!foodEaten) {
-            snake.remove(snake.size() - 1);
-        }
+    private void queueTurn(Direction direction) {
+        simulation.offerTurn(direction, System.nanoTime());
     }
 
     @Override
     public boolean onTouchEvent(MotionEvent event) {
-        if (gameOver && event.getAction() == MotionEvent.ACTION_UP) {
+        // Respuesta inmediata aunque el render esté en reposo
+        wakeRender();
+        if (simulation.isPublishedGameOver() && event.getAction() == MotionEvent.ACTION_UP) {
             if (backToMenuButton.contains(event.getX(), event.getY())) {
                 if (gameEventListener != null) gameEventListener.onBackToMenuPressed();
                 return true;
@@ -834,9 +1054,9 @@ public class GameView extends SurfaceView implements SurfaceHolder.Callback {
                 float minSwipeDistance = 50f;
                 if (Math.abs(dx) < minSwipeDistance && Math.abs(dy) < minSwipeDistance) break;
                 if (Math.abs(dx) > Math.abs(dy)) {
-                    pendingDirection = dx > 0 ? Direction.RIGHT : Direction.LEFT;
+                    queueTurn(dx > 0 ? Direction.RIGHT : Direction.LEFT);
                 } else {
-                    pendingDirection = dy > 0 ? Direction.DOWN : Direction.UP;
+                    queueTurn(dy > 0 ? Direction.DOWN : Direction.UP);
                 }
                 break;
         }
@@ -845,7 +1065,8 @@ public class GameView extends SurfaceView implements SurfaceHolder.Callback {
 
     @Override
     public boolean onKeyDown(int keyCode, KeyEvent event) {
-        if (gameOver) {
+        wakeRender();
+        if (simulation.isPublishedGameOver()) {
             if (keyCode == KeyEvent.KEYCODE_SPACE || keyCode == KeyEvent.KEYCODE_ENTER ||
                     keyCode == KeyEvent.KEYCODE_DPAD_UP || keyCode == KeyEvent.KEYCODE_DPAD_DOWN ||
                     keyCode == KeyEvent.KEYCODE_DPAD_LEFT || keyCode == KeyEvent.KEYCODE_DPAD_RIGHT) {
@@ -856,16 +1077,16 @@ public class GameView extends SurfaceView implements SurfaceHolder.Callback {
             switch (keyCode) {
                 case KeyEvent.KEYCODE_DPAD_UP:
                 case KeyEvent.KEYCODE_W:
-                    pendingDirection = Direction.UP; return true;
+                    queueTurn(Direction.UP); return true;
                 case KeyEvent.KEYCODE_DPAD_DOWN:
                 case KeyEvent.KEYCODE_S:
-                    pendingDirection = Direction.DOWN; return true;
+                    queueTurn(Direction.DOWN); return true;
                 case KeyEvent.KEYCODE_DPAD_LEFT:
                 case KeyEvent.KEYCODE_A:
-                    pendingDirection = Direction.LEFT; return true;
+                    queueTurn(Direction.LEFT); return true;
                 case KeyEvent.KEYCODE_DPAD_RIGHT:
                 case KeyEvent.KEYCODE_D:
-                    pendingDirection = Direction.RIGHT; return true;
+                    queueTurn(Direction.RIGHT); return true;
             }
         }
         return super.onKeyDown(keyCode, event);
@@ -874,45 +1095,59 @@ public class GameView extends SurfaceView implements SurfaceHolder.Callback {
     @Override
     public void surfaceCreated(SurfaceHolder holder) {
         requestFocus();
-        if (thread != null && !thread.isRunning()) {
-            thread.setRunning(true);
-            try { thread.start(); }
-            catch (IllegalThreadStateException e) {
-                thread = new GameThread(getHolder(), this, gameSpeed);
-                thread.setRunning(true);
-                thread.start();
-            }
-        }
+        startThreads();
     }
 
     @Override
-    public void surfaceChanged(SurfaceHolder holder, int format, int width, int height) {}
+    public void surfaceChanged(SurfaceHolder holder, int format, int width, int height) {
+        updateLayout(width, height);
+        // Superficie nueva: el contenido de los buffers no es válido
+        requestFullRedraw();
+    }
 
     @Override
     public void surfaceDestroyed(SurfaceHolder holder) {
-        if (thread != null) {
-            thread.setRunning(false);
-            try { thread.join(); } catch (InterruptedException e) { e.printStackTrace(); }
-        }
-        if (soundPool != null) {
-            soundPool.release();
+        stopThreads();
+        SoundPool pool = soundPool;
+        if (pool != null) {
             soundPool = null;
+            pool.release();
+            // Se vuelven a cargar en el siguiente preloadAssets
+            soundsRequested = false;
         }
     }
 
     public void pause() {
-        if (thread != null) {
-            thread.setRunning(false);
-            try { thread.join(); } catch (InterruptedException e) { e.printStackTrace(); }
-        }
+        stopThreads();
     }
 
     public void resume() {
-        if (thread != null && !thread.isRunning()) {
-            thread = new GameThread(getHolder(), this, gameSpeed);
+        preloadAssets();
+        startThreads();
+    }
+
+    // Arranca los hilos que no estén en marcha (un Thread no se puede reiniciar: se crea otro)
+    private void startThreads() {
+        if (thread == null || !thread.isRunning()) {
+            thread = new GameThread(getHolder(), this);
             thread.setRunning(true);
-            try { thread.start(); }
-            catch (IllegalThreadStateException e) {}
+            thread.start();
+        }
+        if (simulationThread == null || !simulationThread.isRunning()) {
+            simulationThread = new SimulationThread(this, simulation);
+            simulationThread.setRunning(true);
+            simulationThread.start();
+        }
+    }
+
+    private void stopThreads() {
+        if (simulationThread != null) {
+            simulationThread.setRunning(false);
+            try { simulationThread.join(); } catch (InterruptedException e) { e.printStackTrace(); }
+        }
+        if (thread != null) {
+            thread.setRunning(false);
+            try { thread.join(); } catch (InterruptedException e) { e.printStackTrace(); }
         }
     }
 }
@@ -4,8 +4,11 @@ import android.app.Activity;
 import android.content.SharedPreferences;
 import android.media.MediaPlayer;
 import android.os.Bundle;
+import android.os.Process;
+import android.os.SystemClock;
 import android.util.Log;
 import android.view.View;
+import android.view.ViewTreeObserver;
 import android.view.Window;
 import android.view.WindowManager;
 import android.widget.Button;
@@ -18,6 +21,9 @@ import android.graphics.Outline;
 import android.util.TypedValue;
 import android.view.ViewOutlineProvider;
 
+import es.nellagames.viperx.engine.GameEngine;
+import es.nellagames.viperx.engine.SpeedCurve;
+
 public class MainActivity extends Activity {
 
     private GameView gameView;
@@ -96,6 +102,29 @@ public class MainActivity extends Activity {
         // Inicialmente mostrar menú, ocultar juego e instrucciones
         showMenu();
         Log.d("MainActivity", "Activity started");
+        onFirstMenuFrame();
+    }
+
+    // Mide el arranque en frío hasta el primer frame del menú y, ya pintado, empieza a cargar
+    // los recursos del juego en segundo plano para que estén listos al pulsar Play
+    private void onFirstMenuFrame() {
+        final View decor = getWindow().getDecorView();
+        decor.getViewTreeObserver().addOnPreDrawListener(new ViewTreeObserver.OnPreDrawListener() {
+            @Override
+            public boolean onPreDraw() {
+                decor.getViewTreeObserver().removeOnPreDrawListener(this);
+                decor.post(new Runnable() {
+                    @Override
+                    public void run() {
+                        long coldStart = SystemClock.uptimeMillis() - Process.getStartUptimeMillis();
+                        Log.i("MainActivity", "Cold start to menu: " + coldStart + " ms");
+                        reportFullyDrawn();
+                        gameView.preloadAssets();
+                    }
+                });
+                return true;
+            }
+        });
     }
 
     // Aplica esquinas redondeadas a un botón por código (sin shape!)
@@ -188,6 +217,19 @@ public class MainActivity extends Activity {
         if (gameView != null) gameView.pause();
     }
 
+    // Con poca memoria, el juego suelta sus bitmaps reconstruibles
+    @Override
+    public void onTrimMemory(int level) {
+        super.onTrimMemory(level);
+        if (gameView != null) gameView.trimMemory(level);
+    }
+
+    @Override
+    public void onLowMemory() {
+        super.onLowMemory();
+        if (gameView != null) gameView.trimMemory(TRIM_MEMORY_COMPLETE);
+    }
+
     // ELIMINADO: No necesario ya que el GameView maneja todo internamente
     // public void onGameFinished(int score) { ... }
 
@@ -197,19 +239,27 @@ public class MainActivity extends Activity {
             @Override
             public void onBackToMenuPressed() {
                 // Actualizar high score antes de volver al menú
-                updateHighScore(gameView.getCurrentScore());
+                if (!gameView.isDemoMode()) updateHighScore(gameView.getCurrentScore());
                 showMenu();
             }
 
             @Override
             public void onGameOver(int finalScore) {
-                // Actualizar high score cuando el juego termine
-                updateHighScore(finalScore);
+                // Actualizar high score cuando el juego termine (las partidas de la demo no cuentan)
+                if (!gameView.isDemoMode()) updateHighScore(finalScore);
             }
         });
 
-        // Pasar el high score al GameView
+        // Pasar el high score y el tamaño del tablero al GameView
         gameView.setHighScore(highScore);
+        gameView.setBoardSize(prefs.getInt("boardWidth", GameEngine.DEFAULT_BOARD_SIZE),
+                prefs.getInt("boardHeight", GameEngine.DEFAULT_BOARD_SIZE));
+        // Modos de render opcionales
+        gameView.setHardwareRendering(prefs.getBoolean("hardwareRendering", false));
+        gameView.setPartialRedraw(prefs.getBoolean("partialRedraw", false));
+        gameView.setDebugOverlay(prefs.getBoolean("debugOverlay", false));
+        gameView.setDemoMode(prefs.getBoolean("demoMode", false));
+        gameView.setSpeedCurve(prefs.getBoolean("speedRun", false) ? SpeedCurve.SPEED_RUN : SpeedCurve.DEFAULT);
 
         // Cambiar visibilidad
         gameLayer.setVisibility(View.VISIBLE);
@@ -234,7 +284,7 @@ public class MainActivity extends Activity {
     public void onBackPressed() {
         if (gameLayer != null && gameLayer.getVisibility() == View.VISIBLE) {
             // CORREGIDO: Actualizar high score antes de salir del juego
-            updateHighScore(gameView.getCurrentScore());
+            if (!gameView.isDemoMode()) updateHighScore(gameView.getCurrentScore());
             showMenu();
         } else {
             super.onBackPressed();
@@ -3,90 +3,100 @@ package es.nellagames.viperx;
 import android.content.Context;
 import android.graphics.Canvas;
 import android.graphics.Color;
-import android.graphics.Paint;
-import android.os.Handler;
 import android.util.AttributeSet;
+import android.view.Choreographer;
 import android.view.View;
-import java.util.Random;
 
-public class MovingShapesView extends View {
+import es.nellagames.viperx.engine.GameRandom;
 
-    private static class Bubble {
-        float x, y, r, dx, dy;
-        int color;
-    }
-    private Bubble[] bubbles;
-    private Paint paint = new Paint(Paint.ANTI_ALIAS_FLAG);
-    private Handler handler = new Handler();
-    private final int NUM_BUBBLES = 10;
-    private Random rand = new Random();
+// Burbujas del fondo del menú. Se animan con callbacks de vsync de Choreographer, moviendo cada
+// partícula según el tiempo real entre frames, y solo mientras la vista está en una ventana y
+// visible: oculta o desconectada no gasta CPU en el hilo principal.
+public class MovingShapesView extends View implements Choreographer.FrameCallback {
+
+    private static final int[] PALETTE = {
+            Color.parseColor("#CDA6F7"), // Lavanda
+            Color.parseColor("#A7D2FE"), // Azul pastel
+            Color.parseColor("#F5D061"), // Ocre
+            Color.parseColor("#B983FF"), // Púrpura
+            Color.parseColor("#FFECBA")  // Amarillo pastel
+    };
+    private static final float[] RADII = {30f, 44f};
+    private static final int ALPHA = 140;
+    private static final int DEFAULT_BUBBLES = 10;
+    // Tras un parón (p. ej. al volver al menú) no se salta de golpe: como mucho 100 ms por frame
+    private static final float MAX_FRAME_SECONDS = 0.1f;
 
-    // Tamaño real de la vista (para evitar crash con nextInt(0))
-    private int width = 1, height = 1;
+    private final ParticleField particles;
+    private boolean animating = false;
+    private boolean visible = false;
+    private long lastFrameNanos;
 
     public MovingShapesView(Context context, AttributeSet attrs) {
         super(context, attrs);
-        bubbles = new Bubble[NUM_BUBBLES];
-        for (int i = 0; i < NUM_BUBBLES; i++) {
-            bubbles[i] = createBubble();
-        }
-        handler.post(animator);
+        particles = new ParticleField(new GameRandom(System.nanoTime()), PALETTE, RADII, ALPHA);
+        particles.setCount(DEFAULT_BUBBLES);
+    }
+
+    // Miles de partículas cuestan lo mismo en el hilo principal al dibujar: una llamada por grupo
+    public void setBubbleCount(int count) {
+        particles.setCount(count);
+        invalidate();
     }
 
     @Override
     protected void onSizeChanged(int w, int h, int oldw, int oldh) {
         super.onSizeChanged(w, h, oldw, oldh);
-        width = w > 0 ? w : 1;
-        height = h > 0 ? h : 1;
+        particles.resize(w, h);
     }
 
-    private Bubble createBubble() {
-        Bubble b = new Bubble();
-        b.x = rand.nextInt(width > 0 ? width : 1);
-        b.y = rand.nextInt(height > 0 ? height : 1);
-        b.r = rand.nextInt(25) + 25;
-        b.dx = rand.nextFloat() * 3 + 1;
-        b.dy = rand.nextFloat() * 2 + 1;
-        int[] palette = {
-                Color.parseColor("#CDA6F7"), // Lavanda
-                Color.parseColor("#A7D2FE"), // Azul pastel
-                Color.parseColor("#F5D061"), // Ocre
-                Color.parseColor("#B983FF"), // Púrpura
-                Color.parseColor("#FFECBA")  // Amarillo pastel
-        };
-        b.color = palette[rand.nextInt(palette.length)];
-        return b;
+    @Override
+    protected void onAttachedToWindow() {
+        super.onAttachedToWindow();
+        updateAnimation();
     }
 
     @Override
-    protected void onDraw(Canvas canvas) {
-        for (Bubble b : bubbles) {
-            paint.setColor(b.color);
-            paint.setAlpha(140);
-            canvas.drawCircle(b.x, b.y, b.r, paint);
+    protected void onDetachedFromWindow() {
+        super.onDetachedFromWindow();
+        updateAnimation();
+    }
+
+    // Incluye la visibilidad de los padres y de la ventana
+    @Override
+    public void onVisibilityAggregated(boolean isVisible) {
+        super.onVisibilityAggregated(isVisible);
+        visible = isVisible;
+        updateAnimation();
+    }
+
+    private void updateAnimation() {
+        boolean shouldAnimate = visible && isAttachedToWindow();
+        if (shouldAnimate == animating) return;
+        animating = shouldAnimate;
+        Choreographer choreographer = Choreographer.getInstance();
+        if (animating) {
+            lastFrameNanos = 0;
+            choreographer.postFrameCallback(this);
+        } else {
+            choreographer.removeFrameCallback(this);
         }
     }
 
-    private Runnable animator = new Runnable() {
-        @Override
-        public void run() {
-            for (Bubble b : bubbles) {
-                b.x += b.dx;
-                b.y += b.dy;
-                if (b.x > width + b.r || b.y > height + b.r) {
-                    Bubble nb = createBubble();
-                    nb.x = -nb.r;
-                    nb.y = rand.nextInt(height > 0 ? height : 1); // Siempre seguro
-                    b.x = nb.x;
-                    b.y = nb.y;
-                    b.r = nb.r;
-                    b.dx = nb.dx;
-                    b.dy = nb.dy;
-                    b.color = nb.color;
-                }
-            }
+    @Override
+    public void doFrame(long frameTimeNanos) {
+        if (!animating) return;
+        if (lastFrameNanos != 0) {
+            float dt = Math.min(MAX_FRAME_SECONDS, (frameTimeNanos - lastFrameNanos) / 1_000_000_000f);
+            particles.update(dt);
             invalidate();
-            handler.postDelayed(this, 20);
         }
-    };
+        lastFrameNanos = frameTimeNanos;
+        Choreographer.getInstance().postFrameCallback(this);
+    }
+
+    @Override
+    protected void onDraw(Canvas canvas) {
+        particles.draw(canvas);
+    }
 }
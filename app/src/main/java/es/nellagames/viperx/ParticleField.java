@@ -0,0 +1,124 @@
+package es.nellagames.viperx;
+
+import android.graphics.Canvas;
+import android.graphics.Paint;
+
+import es.nellagames.viperx.engine.GameRandom;
+
+// Partículas circulares que cruzan la pantalla en diagonal y reaparecen por la izquierda al salir.
+// El estado vive en arrays paralelos de primitivos y una partícula que sale reutiliza su hueco:
+// actualizar no reserva memoria. Cada hueco pertenece a un grupo fijo (color y tamaño) y los de un
+// grupo son contiguos, así que positions se pasa tal cual a drawPoints: una llamada por grupo, sea
+// cual sea el número de partículas.
+public class ParticleField {
+
+    private final GameRandom random;
+    private final float[] radii;
+    private final int groups;
+    private final Paint[] groupPaints;
+
+    // Velocidades en píxeles por segundo
+    private float minSpeedX = 50f, maxSpeedX = 200f, minSpeedY = 50f, maxSpeedY = 150f;
+
+    private int count;
+    private int width, height;
+    // (x, y) de cada partícula, intercalados: el formato de drawPoints
+    private float[] positions = new float[0];
+    private float[] velocities = new float[0];
+    // Las partículas del grupo g ocupan [groupStart[g], groupStart[g + 1])
+    private final int[] groupStart;
+
+    // Un grupo por combinación de color y radio; alpha común a todos
+    public ParticleField(GameRandom random, int[] colors, float[] radii, int alpha) {
+        this.random = random;
+        this.radii = radii;
+        groups = colors.length * radii.length;
+        groupPaints = new Paint[groups];
+        groupStart = new int[groups + 1];
+        for (int g = 0; g < groups; g++) {
+            Paint paint = new Paint(Paint.ANTI_ALIAS_FLAG);
+            paint.setColor(colors[g % colors.length]);
+            paint.setAlpha(alpha);
+            paint.setStrokeWidth(radiusOf(g) * 2f);
+            paint.setStrokeCap(Paint.Cap.ROUND);
+            groupPaints[g] = paint;
+        }
+    }
+
+    public void setSpeedRange(float minX, float maxX, float minY, float maxY) {
+        minSpeedX = minX;
+        maxSpeedX = maxX;
+        minSpeedY = minY;
+        maxSpeedY = maxY;
+    }
+
+    // Solo reserva memoria si crece el número de partículas
+    public void setCount(int count) {
+        this.count = Math.max(0, count);
+        if (positions.length < this.count * 2) {
+            positions = new float[this.count * 2];
+            velocities = new float[this.count * 2];
+        }
+        for (int g = 0; g <= groups; g++) groupStart[g] = (int) ((long) g * this.count / groups);
+        scatter();
+    }
+
+    public int getCount() {
+        return count;
+    }
+
+    // Redistribuye las partículas por toda la superficie
+    public void resize(int width, int height) {
+        if (width <= 0 || height <= 0) return;
+        this.width = width;
+        this.height = height;
+        scatter();
+    }
+
+    // Integra dt segundos de movimiento
+    public void update(float dt) {
+        if (width <= 0) return;
+        for (int g = 0; g < groups; g++) {
+            float radius = radiusOf(g);
+            for (int i = groupStart[g]; i < groupStart[g + 1]; i++) {
+                int p = i * 2;
+                float x = positions[p] + velocities[p] * dt;
+                float y = positions[p + 1] + velocities[p + 1] * dt;
+                if (x > width + radius || y > height + radius) {
+                    // Reaparece por la izquierda con otra altura y velocidad
+                    x = -radius;
+                    y = random.nextFloat() * height;
+                    randomizeVelocity(p);
+                }
+                positions[p] = x;
+                positions[p + 1] = y;
+            }
+        }
+    }
+
+    public void draw(Canvas canvas) {
+        for (int g = 0; g < groups; g++) {
+            int start = groupStart[g], end = groupStart[g + 1];
+            if (end > start) canvas.drawPoints(positions, start * 2, (end - start) * 2, groupPaints[g]);
+        }
+    }
+
+    private void scatter() {
+        if (width <= 0) return;
+        for (int i = 0; i < count; i++) {
+            int p = i * 2;
+            positions[p] = random.nextFloat() * width;
+            positions[p + 1] = random.nextFloat() * height;
+            randomizeVelocity(p);
+        }
+    }
+
+    private void randomizeVelocity(int p) {
+        velocities[p] = minSpeedX + random.nextFloat() * (maxSpeedX - minSpeedX);
+        velocities[p + 1] = minSpeedY + random.nextFloat() * (maxSpeedY - minSpeedY);
+    }
+
+    private float radiusOf(int group) {
+        return radii[group / (groups / radii.length)];
+    }
+}
@@ -0,0 +1,60 @@
+package es.nellagames.viperx;
+
+import java.util.Locale;
+
+// Tiempo de frame (lock + draw + post) acumulado por backend de render. Sobrevive a los
+// GameThread, así que alternando el modo en el mismo dispositivo se comparan ambos.
+public class RenderBackendStats {
+
+    public enum Backend { SOFTWARE, HARDWARE }
+
+    private final long[] totalNanos = new long[Backend.values().length];
+    private final long[] maxNanos = new long[Backend.values().length];
+    private final int[] frames = new int[Backend.values().length];
+
+    public synchronized void record(Backend backend, long frameNanos) {
+        int i = backend.ordinal();
+        totalNanos[i] += frameNanos;
+        if (frameNanos > maxNanos[i]) maxNanos[i] = frameNanos;
+        frames[i]++;
+    }
+
+    public synchronized int getFrames(Backend backend) {
+        return frames[backend.ordinal()];
+    }
+
+    // Media en milisegundos, o NaN si aún no hay frames de ese backend
+    public synchronized double getAverageMillis(Backend backend) {
+        int i = backend.ordinal();
+        return frames[i] == 0 ? Double.NaN : totalNanos[i] / (frames[i] * 1_000_000.0);
+    }
+
+    public synchronized void reset() {
+        for (int i = 0; i < frames.length; i++) {
+            totalNanos[i] = 0;
+            maxNanos[i] = 0;
+            frames[i] = 0;
+        }
+    }
+
+    public synchronized String summary() {
+        StringBuilder sb = new StringBuilder();
+        for (Backend backend : Backend.values()) {
+            int i = backend.ordinal();
+            if (sb.length() > 0) sb.append(", ");
+            sb.append(backend.name().toLowerCase(Locale.US)).append(": ");
+            if (frames[i] == 0) {
+                sb.append("no frames");
+            } else {
+                sb.append(String.format(Locale.US, "%.2f ms avg, %.2f ms max (%d frames)",
+                        getAverageMillis(backend), maxNanos[i] / 1_000_000.0, frames[i]));
+            }
+        }
+        double software = getAverageMillis(Backend.SOFTWARE);
+        double hardware = getAverageMillis(Backend.HARDWARE);
+        if (!Double.isNaN(software) && !Double.isNaN(hardware) && hardware > 0) {
+            sb.append(String.format(Locale.US, ", speedup %.2fx", software / hardware));
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,277 @@
+package es.nellagames.viperx;
+
+import android.graphics.Bitmap;
+import android.graphics.BitmapShader;
+import android.graphics.BlurMaskFilter;
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.graphics.DashPathEffect;
+import android.graphics.LinearGradient;
+import android.graphics.Paint;
+import android.graphics.Rect;
+import android.graphics.RectF;
+import android.graphics.Shader;
+import android.graphics.Typeface;
+
+// Paints, shaders y rectángulos del render, creados una vez y reajustados solo al cambiar
+// el tamaño de la superficie o de la celda. El bucle de dibujo no crea objetos.
+// Los desenfoques (MaskFilter) se hornean en bitmaps para que el canvas hardware no tenga que
+// calcularlos en cada frame; en el bucle solo quedan sombras de texto, que ambos soportan.
+public class RenderResources {
+
+    private static final Typeface BOLD = Typeface.create(Typeface.DEFAULT, Typeface.BOLD);
+
+    // Fondo y tablero
+    final Paint cellPaint = new Paint();
+    // Cuadrícula repetida en mosaico desde el origen del tablero
+    final Paint gridPaint = new Paint();
+    private Bitmap gridTile;
+
+    // Caja de pregunta
+    final Paint questionBgPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+    final Paint questionBorderPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+    final Paint questionInnerBorderPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+    final Paint questionTextPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+    final Paint separatorPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+    final Paint scorePaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+    final Paint highScorePaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+    final Paint questionGlowPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+    final Paint dotPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+    final RectF questionRect = new RectF();
+    final RectF questionInnerRect = new RectF();
+    final RectF questionGlowRect = new RectF();
+
+    // Comida
+    final Paint foodShadowPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+    final Paint foodBgPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+    final Paint foodBgShadowPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+    final Paint foodBorderPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+    final Paint foodNumberPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+    final Paint.FontMetrics foodNumberMetrics = new Paint.FontMetrics();
+
+    // Game Over
+    final Paint overlayPaint = new Paint();
+    final Paint gameOverGlowPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+    // Halo desenfocado de "GAME OVER" y su posición respecto al centro y la línea base del texto
+    private Bitmap gameOverGlow;
+    private float gameOverGlowLeft, gameOverGlowTop;
+    final Paint gameOverPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+    final Paint gameOverBorderPaint;
+    final Paint scorePanelPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+    final Paint panelBorderPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+    final Paint finalScorePaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+    final Paint restartPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+    final Paint decorPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+    final Paint starDecorPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+
+    // Botón Back to Menu
+    final Paint buttonBgPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+    final Paint buttonBorderPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+    final Paint buttonTextPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+    final Paint buttonGlowPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+    final RectF buttonGlowRect = new RectF();
+
+    // Overlay de depuración
+    final Paint debugBgPaint = new Paint();
+    final Paint debugTextPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+
+    private int width = -1, height = -1, cellSize = -1;
+
+    public RenderResources() {
+        cellPaint.setColor(Color.rgb(198, 255, 198));
+
+        questionBorderPaint.setStyle(Paint.Style.STROKE);
+        questionBorderPaint.setStrokeWidth(8f);
+        questionBorderPaint.setColor(Color.argb(240, 100, 150, 255));
+
+        questionInnerBorderPaint.setStyle(Paint.Style.STROKE);
+        questionInnerBorderPaint.setStrokeWidth(3f);
+        questionInnerBorderPaint.setColor(Color.argb(150, 180, 200, 255));
+
+        questionTextPaint.setColor(Color.rgb(255, 255, 230));
+        questionTextPaint.setTextSize(64f);
+        questionTextPaint.setTextAlign(Paint.Align.CENTER);
+        questionTextPaint.setTypeface(BOLD);
+        questionTextPaint.setShadowLayer(10, 4, 4, Color.argb(220, 0, 0, 0));
+        // Carga ya los glifos de las preguntas, para que la primera de cada operador no los busque
+        questionTextPaint.measureText("Q: 0123456789 + - × ÷ = ?");
+
+        separatorPaint.setColor(Color.argb(180, 100, 150, 255));
+        separatorPaint.setStrokeWidth(4f);
+
+        scorePaint.setColor(Color.rgb(180, 255, 180));
+        scorePaint.setTextSize(40f);
+        scorePaint.setTextAlign(Paint.Align.LEFT);
+        scorePaint.setTypeface(BOLD);
+        scorePaint.setShadowLayer(8, 3, 3, Color.argb(200, 0, 0, 0));
+
+        highScorePaint.setColor(Color.rgb(255, 215, 0));
+        highScorePaint.setTextSize(40f);
+        highScorePaint.setTextAlign(Paint.Align.RIGHT);
+        highScorePaint.setTypeface(BOLD);
+        highScorePaint.setShadowLayer(8, 3, 3, Color.argb(200, 0, 0, 0));
+
+        questionGlowPaint.setColor(Color.argb(60, 255, 255, 255));
+        questionGlowPaint.setStyle(Paint.Style.STROKE);
+        questionGlowPaint.setStrokeWidth(2f);
+
+        dotPaint.setColor(Color.argb(200, 150, 200, 255));
+
+        // Sombra que sigue la forma del bitmap: negro al 30% sobre el alpha horneado
+        foodShadowPaint.setColor(Color.argb(77, 0, 0, 0));
+        foodBgShadowPaint.setColor(Color.argb(80, 0, 0, 0));
+        foodBorderPaint.setColor(Color.argb(100, 255, 255, 255));
+        foodBorderPaint.setStyle(Paint.Style.STROKE);
+        foodNumberPaint.setColor(Color.WHITE);
+        foodNumberPaint.setTextAlign(Paint.Align.CENTER);
+        foodNumberPaint.setTypeface(BOLD);
+        foodNumberPaint.setShadowLayer(6, 0, 3, Color.argb(200, 0, 0, 0));
+
+        overlayPaint.setColor(Color.argb(220, 10, 15, 30));
+
+        gameOverGlowPaint.setColor(Color.argb(100, 255, 100, 100));
+        bakeGameOverGlow("GAME OVER", 90f, 15f);
+
+        gameOverPaint.setColor(Color.rgb(255, 80, 80));
+        gameOverPaint.setTextSize(85f);
+        gameOverPaint.setFakeBoldText(true);
+        gameOverPaint.setTextAlign(Paint.Align.CENTER);
+        gameOverPaint.setTypeface(BOLD);
+        gameOverPaint.setShadowLayer(8, 4, 4, Color.argb(200, 0, 0, 0));
+
+        gameOverBorderPaint = new Paint(gameOverPaint);
+        gameOverBorderPaint.setStyle(Paint.Style.STROKE);
+        gameOverBorderPaint.setStrokeWidth(6f);
+        gameOverBorderPaint.setColor(Color.rgb(120, 20, 20));
+
+        scorePanelPaint.setColor(Color.argb(180, 20, 30, 50));
+
+        panelBorderPaint.setStyle(Paint.Style.STROKE);
+        panelBorderPaint.setStrokeWidth(3f);
+        panelBorderPaint.setColor(Color.rgb(100, 150, 255));
+
+        finalScorePaint.setColor(Color.rgb(255, 255, 150));
+        finalScorePaint.setTextSize(36f);
+        finalScorePaint.setTextAlign(Paint.Align.CENTER);
+        finalScorePaint.setTypeface(BOLD);
+        finalScorePaint.setShadowLayer(4, 2, 2, Color.BLACK);
+
+        restartPaint.setColor(Color.rgb(150, 255, 150));
+        restartPaint.setTextSize(32f);
+        restartPaint.setTextAlign(Paint.Align.CENTER);
+        restartPaint.setTypeface(BOLD);
+        restartPaint.setShadowLayer(4, 2, 2, Color.BLACK);
+
+        decorPaint.setColor(Color.rgb(100, 150, 255));
+        decorPaint.setStrokeWidth(4f);
+        decorPaint.setPathEffect(new DashPathEffect(new float[]{10, 5}, 0));
+
+        starDecorPaint.setColor(Color.rgb(255, 215, 0));
+        starDecorPaint.setTextSize(24f);
+        starDecorPaint.setTextAlign(Paint.Align.CENTER);
+
+        buttonBorderPaint.setStyle(Paint.Style.STROKE);
+        buttonBorderPaint.setStrokeWidth(4f);
+        buttonBorderPaint.setColor(Color.argb(255, 100, 150, 200));
+
+        buttonTextPaint.setColor(Color.WHITE);
+        buttonTextPaint.setTextSize(38f);
+        buttonTextPaint.setTextAlign(Paint.Align.CENTER);
+        buttonTextPaint.setTypeface(BOLD);
+        buttonTextPaint.setShadowLayer(4, 2, 2, Color.argb(150, 0, 0, 0));
+
+        buttonGlowPaint.setColor(Color.argb(40, 255, 255, 255));
+        buttonGlowPaint.setStyle(Paint.Style.STROKE);
+        buttonGlowPaint.setStrokeWidth(2f);
+
+        debugBgPaint.setColor(Color.argb(170, 0, 0, 0));
+        debugTextPaint.setColor(Color.rgb(120, 255, 120));
+        debugTextPaint.setTextSize(26f);
+        debugTextPaint.setTypeface(Typeface.MONOSPACE);
+    }
+
+    private void bakeGameOverGlow(String text, float textSize, float blurRadius) {
+        Paint paint = new Paint(Paint.ANTI_ALIAS_FLAG);
+        paint.setTextSize(textSize);
+        paint.setFakeBoldText(true);
+        paint.setMaskFilter(new BlurMaskFilter(blurRadius, BlurMaskFilter.Blur.NORMAL));
+        Rect bounds = new Rect();
+        paint.getTextBounds(text, 0, text.length(), bounds);
+        int pad = (int) Math.ceil(blurRadius * 2f) + 4;
+        gameOverGlow = Bitmap.createBitmap(bounds.width() + 2 * pad, bounds.height() + 2 * pad, Bitmap.Config.ALPHA_8);
+        new Canvas(gameOverGlow).drawText(text, pad - bounds.left, pad - bounds.top, paint);
+        gameOverGlowLeft = bounds.left - pad - paint.measureText(text) / 2f;
+        gameOverGlowTop = bounds.top - pad;
+    }
+
+    // Halo centrado en centerX, con la línea base del texto en baselineY
+    void drawGameOverGlow(Canvas canvas, float centerX, float baselineY) {
+        canvas.drawBitmap(gameOverGlow, centerX + gameOverGlowLeft, baselineY + gameOverGlowTop, gameOverGlowPaint);
+    }
+
+    int getGameOverGlowByteCount() {
+        return gameOverGlow != null ? gameOverGlow.getAllocationByteCount() : 0;
+    }
+
+    public void setGridTile(Bitmap tile) {
+        if (tile == gridTile) return;
+        gridTile = tile;
+        gridPaint.setShader(tile != null
+                ? new BitmapShader(tile, Shader.TileMode.REPEAT, Shader.TileMode.REPEAT)
+                : null);
+    }
+
+    // Reajusta lo que depende del tamaño. Devuelve false si no había nada que cambiar.
+    public boolean resize(int width, int height, int cellSize) {
+        if (width == this.width && height == this.height && cellSize == this.cellSize) return false;
+        if (width != this.width || height != this.height) {
+            resizeQuestionArea(width);
+            resizeBackToMenuButton(width, height);
+        }
+        if (cellSize != this.cellSize && cellSize > 0) {
+            foodBorderPaint.setStrokeWidth(Math.max(1f, cellSize * 0.015f));
+            foodNumberPaint.setTextSize(Math.max(14f, cellSize * 0.32f));
+            foodNumberPaint.getFontMetrics(foodNumberMetrics);
+        }
+        this.width = width;
+        this.height = height;
+        this.cellSize = cellSize;
+        return true;
+    }
+
+    private void resizeQuestionArea(int width) {
+        float questionAreaHeight = 320f;
+        float questionAreaWidth = width * 0.9f;
+        float centerX = width / 2f;
+        float centerY = questionAreaHeight / 2f + 120f;
+        float left = centerX - (questionAreaWidth / 2f);
+        float top = centerY - (questionAreaHeight / 2f);
+        float right = centerX + (questionAreaWidth / 2f);
+        float bottom = centerY + (questionAreaHeight / 2f);
+
+        questionRect.set(left, top, right, bottom);
+        questionInnerRect.set(left + 4, top + 4, right - 4, bottom - 4);
+        questionGlowRect.set(left + 2, top + 2, right - 2, bottom - 2);
+        questionBgPaint.setShader(new LinearGradient(
+                left, top, left, bottom,
+                new int[]{ Color.argb(250, 35, 45, 65), Color.argb(250, 20, 30, 50) },
+                null,
+                Shader.TileMode.CLAMP
+        ));
+    }
+
+    private void resizeBackToMenuButton(int width, int height) {
+        float buttonWidth = width * 0.6f;
+        float buttonHeight = 70f;
+        float buttonLeft = (width - buttonWidth) / 2f;
+        float buttonTop = (height / 2f) + 190f;
+
+        buttonGlowRect.set(buttonLeft + 2, buttonTop + 2, buttonLeft + buttonWidth - 2, buttonTop + buttonHeight - 2);
+        buttonBgPaint.setShader(new LinearGradient(
+                buttonLeft, buttonTop, buttonLeft, buttonTop + buttonHeight,
+                new int[]{ Color.argb(255, 70, 130, 180), Color.argb(255, 50, 100, 150) },
+                null,
+                Shader.TileMode.CLAMP
+        ));
+    }
+}
@@ -0,0 +1,83 @@
+package es.nellagames.viperx;
+
+import android.util.Log;
+
+import java.util.concurrent.locks.LockSupport;
+
+import es.nellagames.viperx.engine.GameSimulation;
+
+// Hilo de simulación: ticks a su ritmo, independiente del render. Un frame lento no retrasa
+// ningún tick; el render simplemente dibuja la instantánea más reciente cuando puede.
+// Cada tick tiene un deadline absoluto (el anterior más el intervalo que marca la SpeedCurve para
+// la puntuación), así que los retrasos al despertar no se acumulan. Entre ticks el hilo duerme
+// con parkNanos, sin espera activa; el retraso de cada tick respecto a su deadline es el jitter.
+// En game over no hay ticks: el hilo duerme hasta que una orden de la UI lo despierta con wake().
+public class SimulationThread extends Thread {
+    // Máximo de ticks recuperados seguidos tras un parón
+    private static final int MAX_CATCH_UP_TICKS = 5;
+
+    private final GameView gameView;
+    private final GameSimulation simulation;
+    private volatile boolean running = false;
+
+    public SimulationThread(GameView gameView, GameSimulation simulation) {
+        super("SimulationThread");
+        this.gameView = gameView;
+        this.simulation = simulation;
+    }
+
+    public void setRunning(boolean run) {
+        running = run;
+        if (!run) LockSupport.unpark(this);
+        Log.d("SimulationThread", "Thread running set to: " + run);
+    }
+
+    public boolean isRunning() {
+        return running;
+    }
+
+    // Despierta el hilo para aplicar una orden de la UI (reinicio, tablero) sin esperar al tick
+    public void wake() {
+        LockSupport.unpark(this);
+    }
+
+    @Override
+    public void run() {
+        Log.d("SimulationThread", "Simulation thread started");
+        FrameStats stats = gameView.getFrameStats();
+        long nextTick = System.nanoTime() + simulation.getTickNanos();
+
+        while (running) {
+            long now = System.nanoTime();
+            // Un reinicio en game over cambia la pantalla aunque no haya tick
+            if (simulation.processCommands(now)) gameView.wakeRender();
+            if (simulation.isPublishedGameOver()) {
+                // Las órdenes (reinicio, tablero, demo) llaman a wake(); setRunning(false) también
+                LockSupport.park(this);
+                nextTick = System.nanoTime() + simulation.getTickNanos();
+                continue;
+            }
+
+            int ticks = 0;
+            while (now >= nextTick && ticks < MAX_CATCH_UP_TICKS) {
+                long updateStart = System.nanoTime();
+                stats.recordTickJitter(updateStart - nextTick);
+                gameView.update();
+                stats.recordTick(System.nanoTime() - updateStart);
+                // Intervalo con la puntuación que dejó este tick: la velocidad sube al comer
+                nextTick += simulation.getTickNanos();
+                ticks++;
+            }
+            if (now >= nextTick) {
+                // Parón demasiado largo: descartar el atraso en vez de acelerar el juego
+                long tickNanos = simulation.getTickNanos();
+                stats.recordDroppedTicks((now - nextTick) / tickNanos + 1);
+                nextTick = now + tickNanos;
+            }
+
+            long waitNanos = nextTick - System.nanoTime();
+            if (waitNanos > 0) LockSupport.parkNanos(this, waitNanos);
+        }
+        Log.d("SimulationThread", "Simulation thread ended");
+    }
+}
@@ -0,0 +1,194 @@
+package es.nellagames.viperx;
+
+import android.graphics.Bitmap;
+import android.graphics.BlurMaskFilter;
+import android.graphics.Canvas;
+import android.graphics.Paint;
+import android.graphics.Rect;
+import android.util.Log;
+import android.util.LruCache;
+
+import es.nellagames.viperx.engine.GameEngine;
+
+// Sprites ya escalados al tamaño de celda actual. Se reconstruyen solo al cambiar el tamaño
+// de la superficie; el bucle de dibujo nunca escala bitmaps ni calcula desenfoques.
+// Origen y copias escaladas son atlas: un solo bitmap con cada sprite en su rectángulo.
+public class SpriteCache {
+
+    // Índices de sprite (orden de los bitmaps de origen)
+    public static final int HEAD_UP = 0, HEAD_DOWN = 1, HEAD_LEFT = 2, HEAD_RIGHT = 3;
+    public static final int BODY_VERTICAL = 4, BODY_HORIZONTAL = 5, BODY_TOPLEFT = 6,
+            BODY_TOPRIGHT = 7, BODY_BOTTOMLEFT = 8, BODY_BOTTOMRIGHT = 9;
+    public static final int TAIL_UP = 10, TAIL_DOWN = 11, TAIL_LEFT = 12, TAIL_RIGHT = 13;
+    public static final int FOOD_FIRST = 14, FOOD_COUNT = GameEngine.FOOD_VARIANTS;
+    public static final int SPRITE_COUNT = FOOD_FIRST + FOOD_COUNT;
+
+    // Juego de sprites para un tamaño de celda concreto. Se dibujan con
+    // drawBitmap(atlas, src[i], destino, paint), siempre a su tamaño (cellSize o foodSize).
+    // Si hardware es true, atlas y cuadrícula son bitmaps HARDWARE: solo sirven en un canvas acelerado.
+    public static final class ScaledSprites {
+        public final int cellSize;
+        public final boolean hardware;
+        public final int foodSize;
+        public final Bitmap atlas;
+        public final Rect[] src;
+        public final Bitmap grid;
+        // Sombras desenfocadas ya horneadas (ALPHA_8, se pintan con el color del Paint).
+        // Se dibujan desplazadas por su offset, que es negativo por el margen del desenfoque.
+        public final Bitmap[] foodShadows;
+        public final int foodShadowOffset;
+        public final Bitmap badgeShadow;
+        public final int badgeShadowOffset;
+        final int byteCount;
+
+        ScaledSprites(int cellSize, boolean hardware, int foodSize, Bitmap atlas, Rect[] src, Bitmap grid,
+                      Bitmap[] foodShadows, int foodShadowOffset, Bitmap badgeShadow, int badgeShadowOffset) {
+            this.cellSize = cellSize;
+            this.hardware = hardware;
+            this.foodSize = foodSize;
+            this.atlas = atlas;
+            this.src = src;
+            this.grid = grid;
+            this.foodShadows = foodShadows;
+            this.foodShadowOffset = foodShadowOffset;
+            this.badgeShadow = badgeShadow;
+            this.badgeShadowOffset = badgeShadowOffset;
+            int bytes = atlas.getAllocationByteCount();
+            if (grid != null) bytes += grid.getAllocationByteCount();
+            for (Bitmap b : foodShadows) {
+                if (b != null) bytes += b.getAllocationByteCount();
+            }
+            if (badgeShadow != null) bytes += badgeShadow.getAllocationByteCount();
+            this.byteCount = bytes;
+        }
+    }
+
+    // Proporciones del fondo del número sobre la comida (ver GameView.drawFood)
+    static final float BADGE_WIDTH = 0.40f, BADGE_HEIGHT = 0.30f;
+    // Sprites por fila en el atlas escalado y separación entre ellos
+    private static final int ATLAS_COLUMNS = 6, ATLAS_PADDING = 1;
+
+    private final LruCache<Long, ScaledSprites> cache;
+    private Bitmap atlasSource;
+    private Rect[] regions;
+    private Bitmap gridSource;
+
+    // maxBytes: memoria máxima entre todos los tamaños (rotación, multiventana)
+    public SpriteCache(int maxBytes) {
+        cache = new LruCache<Long, ScaledSprites>(maxBytes) {
+            @Override
+            protected int sizeOf(Long key, ScaledSprites value) {
+                return value.byteCount;
+            }
+        };
+    }
+
+    // Presupuesto por defecto: 1/8 de la memoria de la VM
+    public static SpriteCache withDefaultBudget() {
+        return new SpriteCache((int) Math.min(Integer.MAX_VALUE, Runtime.getRuntime().maxMemory() / 8));
+    }
+
+    // atlas: bitmap con todos los sprites; regions: su rectángulo en el atlas, por índice de sprite
+    public synchronized void setSources(Bitmap atlas, Rect[] regions, Bitmap grid) {
+        if (regions.length != SPRITE_COUNT) {
+            throw new IllegalArgumentException("Expected " + SPRITE_COUNT + " sprites, got " + regions.length);
+        }
+        this.atlasSource = atlas;
+        this.regions = regions.clone();
+        this.gridSource = grid;
+        cache.evictAll();
+    }
+
+    // hardware: para dibujar en un canvas acelerado, con atlas y cuadrícula en memoria gráfica
+    public synchronized ScaledSprites get(int cellSize, int gridWidth, int gridHeight, boolean hardware) {
+        if (cellSize <= 0 || atlasSource == null) return null;
+        long key = ((long) cellSize << 42) | ((long) gridWidth << 21) | gridHeight | (hardware ? Long.MIN_VALUE : 0);
+        ScaledSprites set = cache.get(key);
+        if (set == null) {
+            set = build(cellSize, gridWidth, gridHeight, hardware);
+            cache.put(key, set);
+            Log.d("SpriteCache", "Built " + (set.hardware ? "hardware" : "software") + " sprites for cell "
+                    + cellSize + " (" + set.byteCount + " bytes)");
+        }
+        return set;
+    }
+
+    // Bytes de las copias escaladas en caché
+    public synchronized int getByteCount() {
+        return cache.size();
+    }
+
+    public synchronized boolean hasSources() {
+        return atlasSource != null;
+    }
+
+    public synchronized void clear() {
+        cache.evictAll();
+    }
+
+    private ScaledSprites build(int cellSize, int gridWidth, int gridHeight, boolean hardware) {
+        int foodPadding = Math.max(1, cellSize / 50);
+        int foodSize = Math.max(1, cellSize - (foodPadding * 2));
+
+        // Atlas escalado: una casilla por sprite. La comida se escala con filtro y la serpiente no.
+        int slot = cellSize + ATLAS_PADDING;
+        int rows = (SPRITE_COUNT + ATLAS_COLUMNS - 1) / ATLAS_COLUMNS;
+        Bitmap atlas = Bitmap.createBitmap(ATLAS_COLUMNS * slot, rows * slot, Bitmap.Config.ARGB_8888);
+        Canvas atlasCanvas = new Canvas(atlas);
+        Paint filtered = new Paint(Paint.FILTER_BITMAP_FLAG);
+        Rect[] src = new Rect[SPRITE_COUNT];
+        for (int i = 0; i < SPRITE_COUNT; i++) {
+            int size = i >= FOOD_FIRST ? foodSize : cellSize;
+            int left = (i % ATLAS_COLUMNS) * slot;
+            int top = (i / ATLAS_COLUMNS) * slot;
+            src[i] = new Rect(left, top, left + size, top + size);
+            atlasCanvas.drawBitmap(atlasSource, regions[i], src[i], i >= FOOD_FIRST ? filtered : null);
+        }
+        Bitmap grid = null;
+        if (gridSource != null && gridWidth > 0 && gridHeight > 0) {
+            grid = Bitmap.createScaledBitmap(gridSource, gridWidth, gridHeight, false);
+        }
+
+        // Sombra con la forma de cada comida, desenfocada una vez aquí y no en cada frame
+        Paint blur = new Paint(Paint.ANTI_ALIAS_FLAG);
+        blur.setMaskFilter(new BlurMaskFilter(Math.max(1f, cellSize * 0.05f), BlurMaskFilter.Blur.NORMAL));
+        Bitmap[] foodShadows = new Bitmap[FOOD_COUNT];
+        int[] offset = new int[2];
+        for (int i = 0; i < FOOD_COUNT; i++) {
+            Rect r = src[FOOD_FIRST + i];
+            Bitmap food = Bitmap.createBitmap(atlas, r.left, r.top, r.width(), r.height());
+            foodShadows[i] = food.extractAlpha(blur, offset);
+            food.recycle();
+        }
+        int foodShadowOffset = offset[0];
+
+        // Sombra del rectángulo redondeado bajo el número
+        float badgeBlur = Math.max(1f, cellSize * 0.02f);
+        int pad = (int) Math.ceil(badgeBlur * 2f) + 1;
+        float badgeWidth = cellSize * BADGE_WIDTH;
+        float badgeHeight = cellSize * BADGE_HEIGHT;
+        float cornerRadius = Math.max(4f, cellSize * 0.08f);
+        Bitmap badgeShadow = Bitmap.createBitmap((int) Math.ceil(badgeWidth) + 2 * pad,
+                (int) Math.ceil(badgeHeight) + 2 * pad, Bitmap.Config.ALPHA_8);
+        Paint badgePaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+        badgePaint.setMaskFilter(new BlurMaskFilter(badgeBlur, BlurMaskFilter.Blur.NORMAL));
+        new Canvas(badgeShadow).drawRoundRect(pad, pad, pad + badgeWidth, pad + badgeHeight,
+                cornerRadius, cornerRadius, badgePaint);
+
+        // Atlas y cuadrícula pasan a memoria gráfica; las sombras ALPHA_8 se quedan en software
+        if (hardware) {
+            Bitmap hardwareAtlas = atlas.copy(Bitmap.Config.HARDWARE, false);
+            Bitmap hardwareGrid = grid != null ? grid.copy(Bitmap.Config.HARDWARE, false) : null;
+            if (hardwareAtlas != null && (grid == null || hardwareGrid != null)) {
+                atlas.recycle();
+                if (grid != null) grid.recycle();
+                atlas = hardwareAtlas;
+                grid = hardwareGrid;
+            } else {
+                hardware = false;
+            }
+        }
+
+        return new ScaledSprites(cellSize, hardware, foodSize, atlas, src, grid, foodShadows, foodShadowOffset, badgeShadow, -pad);
+    }
+}
@@ -0,0 +1,132 @@
+package es.nellagames.viperx;
+
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.graphics.Paint;
+
+import es.nellagames.viperx.engine.GameRandom;
+
+// Estrellas de fondo en arrays paralelos. Cada estrella solo guarda posición y fase;
+// el brillo sale de una tabla precalculada y se dibujan agrupadas por bandas de brillo,
+// una llamada a drawPoints por banda.
+public class StarField {
+
+    // Densidad equivalente a las 180 estrellas originales en una pantalla 1080x1920
+    private static final float STARS_PER_MEGAPIXEL = 87f;
+    private static final int MIN_STARS = 40;
+    private static final int MAX_STARS = 600;
+
+    // Un ciclo de parpadeo: sube de 0.3 a 1 y vuelve a bajar, más rápido cuanto más brilla
+    private static final float MIN_ALPHA = 0.3f;
+    // Banda de brillo de cada paso del ciclo
+    private static final byte[] PHASE_BAND;
+
+    // Bandas: límite inferior de brillo, color, alpha y diámetro del punto
+    private static final float[] BAND_FROM = {0f, 0.5f, 0.6f, 0.7f, 0.8f};
+    private static final int[] BAND_COLOR = {
+            Color.rgb(255, 255, 255), Color.rgb(255, 255, 255), Color.rgb(220, 220, 255),
+            Color.rgb(220, 220, 255), Color.rgb(255, 255, 200)
+    };
+    private static final float[] BAND_ALPHA = {0.4f, 0.55f, 0.65f, 0.75f, 0.9f};
+    private static final float[] BAND_SIZE = {4f, 4f, 4f, 6f, 6f};
+    private static final int BANDS = BAND_FROM.length;
+
+    static {
+        float[] alphas = new float[256];
+        int n = 0;
+        float alpha = MIN_ALPHA;
+        boolean increasing = true;
+        do {
+            alphas[n++] = alpha;
+            float speed = 0.015f + alpha * 0.01f;
+            if (increasing) {
+                alpha += speed;
+                if (alpha >= 1f) { alpha = 1f; increasing = false; }
+            } else {
+                alpha -= speed;
+                if (alpha <= MIN_ALPHA) { alpha = MIN_ALPHA; increasing = true; }
+            }
+        } while (!(increasing && alpha == MIN_ALPHA) && n < alphas.length);
+        PHASE_BAND = new byte[n];
+        for (int i = 0; i < n; i++) {
+            int band = 0;
+            while (band + 1 < BANDS && alphas[i] >= BAND_FROM[band + 1]) band++;
+            PHASE_BAND[i] = (byte) band;
+        }
+    }
+
+    private final Paint[] bandPaints = new Paint[BANDS];
+    private final GameRandom random;
+
+    private int count;
+    private float[] xs = new float[0];
+    private float[] ys = new float[0];
+    private int[] phases = new int[0];
+    // Puntos (x, y) de cada banda, rellenados en cada frame sin reservar memoria
+    private final float[][] bandPoints = new float[BANDS][];
+    private final int[] bandCounts = new int[BANDS];
+
+    // random: split del generador de la sesión
+    public StarField(GameRandom random) {
+        this.random = random;
+        for (int b = 0; b < BANDS; b++) {
+            Paint paint = new Paint(Paint.ANTI_ALIAS_FLAG);
+            paint.setColor(BAND_COLOR[b]);
+            paint.setAlpha((int) (BAND_ALPHA[b] * 255));
+            paint.setStrokeWidth(BAND_SIZE[b]);
+            paint.setStrokeCap(Paint.Cap.ROUND);
+            bandPaints[b] = paint;
+            bandPoints[b] = new float[0];
+        }
+    }
+
+    public static int starCountFor(int width, int height) {
+        int n = Math.round(width * (float) height / 1_000_000f * STARS_PER_MEGAPIXEL);
+        return Math.max(MIN_STARS, Math.min(MAX_STARS, n));
+    }
+
+    // Redistribuye las estrellas por la pantalla; solo reserva memoria si crece el número
+    public void resize(int width, int height) {
+        if (width <= 0 || height <= 0) return;
+        count = starCountFor(width, height);
+        if (xs.length < count) {
+            xs = new float[count];
+            ys = new float[count];
+            phases = new int[count];
+            for (int b = 0; b < BANDS; b++) bandPoints[b] = new float[count * 2];
+        }
+        for (int i = 0; i < count; i++) {
+            xs[i] = random.nextFloat() * width;
+            ys[i] = random.nextFloat() * height;
+            phases[i] = random.nextInt(PHASE_BAND.length);
+        }
+    }
+
+    public int getCount() {
+        return count;
+    }
+
+    // Avanza el parpadeo un paso
+    public void update() {
+        int cycle = PHASE_BAND.length;
+        for (int i = 0; i < count; i++) {
+            int phase = phases[i] + 1;
+            phases[i] = phase == cycle ? 0 : phase;
+        }
+    }
+
+    public void draw(Canvas canvas) {
+        for (int b = 0; b < BANDS; b++) bandCounts[b] = 0;
+        for (int i = 0; i < count; i++) {
+            int band = PHASE_BAND[phases[i]];
+            float[] points = bandPoints[band];
+            int n = bandCounts[band];
+            points[n] = xs[i];
+            points[n + 1] = ys[i];
+            bandCounts[band] = n + 2;
+        }
+        for (int b = 0; b < BANDS; b++) {
+            if (bandCounts[b] > 0) canvas.drawPoints(bandPoints[b], 0, bandCounts[b], bandPaints[b]);
+        }
+    }
+}
@@ -0,0 +1,24 @@
+plugins {
+    java
+    alias(libs.plugins.jmh)
+}
+
+java {
+    sourceCompatibility = JavaVersion.VERSION_11
+    targetCompatibility = JavaVersion.VERSION_11
+}
+
+dependencies {
+    implementation(project(":engine"))
+}
+
+// ./gradlew :benchmarks:jmh  (resultados en build/results/jmh/results.txt)
+jmh {
+    jmhVersion.set(libs.versions.jmhCore)
+    profilers.add("gc")
+    fork.set(1)
+    warmupIterations.set(3)
+    iterations.set(5)
+    // Filtro opcional: ./gradlew :benchmarks:jmh -Pjmh.includes=Spawn
+    providers.gradleProperty("jmh.includes").orNull?.let { includes.add(it) }
+}
@@ -0,0 +1,47 @@
+package es.nellagames.viperx.benchmarks;
+
+import es.nellagames.viperx.engine.Autopilot;
+import es.nellagames.viperx.engine.GameEngine;
+import es.nellagames.viperx.engine.GameRandom;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+// Coste de decidir y aplicar un tick con el piloto automático (búsquedas incluidas). Con
+// -prof gc debe dar 0 B/op salvo al reiniciar la partida. Los tableros grandes miden el caso
+// de la demo a tamaño máximo: casi todos los ticks siguen el camino ya aceptado.
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class AutopilotBenchmark {
+
+    @Param({"10", "50", "200", "1000", "2000"})
+    public int boardSize;
+
+    private GameEngine engine;
+    private Autopilot autopilot;
+    private GameRandom random;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        random = new GameRandom(42);
+        engine = new GameEngine(boardSize, boardSize, random.split());
+        autopilot = new Autopilot();
+    }
+
+    @Benchmark
+    public int tick() {
+        if (engine.isGameOver()) engine.restart(random.split());
+        engine.tick(autopilot.nextTurn(engine));
+        return engine.getScore();
+    }
+}
@@ -0,0 +1,69 @@
+package es.nellagames.viperx.benchmarks;
+
+import es.nellagames.viperx.engine.OccupancyGrid;
+import es.nellagames.viperx.engine.SnakeBody;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+// Consulta "¿qué hay en esta casilla?" en la rejilla frente a la búsqueda lineal en el cuerpo
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class CollisionBenchmark {
+
+    private static final int PROBES = 1024;
+
+    @Param({"100", "1000", "2000"})
+    public int boardSize;
+
+    @Param({"100", "10000"})
+    public int snakeLength;
+
+    private OccupancyGrid grid;
+    private SnakeBody snake;
+    private int[] probeX, probeY;
+    private int probe;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        grid = new OccupancyGrid(boardSize, boardSize);
+        snake = new SnakeBody(snakeLength);
+        // Serpiente en zigzag por filas
+        for (int i = 0; i < snakeLength; i++) {
+            int y = i / boardSize;
+            int x = (y & 1) == 0 ? i % boardSize : boardSize - 1 - i % boardSize;
+            snake.pushTail(SnakeBody.pack(x, y));
+            grid.set(grid.index(x, y), OccupancyGrid.SNAKE);
+        }
+        Random random = new Random(42);
+        probeX = new int[PROBES];
+        probeY = new int[PROBES];
+        for (int i = 0; i < PROBES; i++) {
+            probeX[i] = random.nextInt(boardSize);
+            probeY[i] = random.nextInt(boardSize);
+        }
+    }
+
+    @Benchmark
+    public byte gridLookup() {
+        int i = probe++ & (PROBES - 1);
+        return grid.get(probeX[i], probeY[i]);
+    }
+
+    @Benchmark
+    public boolean linearScan() {
+        int i = probe++ & (PROBES - 1);
+        return snake.contains(SnakeBody.pack(probeX[i], probeY[i]));
+    }
+}
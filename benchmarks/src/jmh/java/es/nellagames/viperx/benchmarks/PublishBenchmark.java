@@ -0,0 +1,55 @@
+package es.nellagames.viperx.benchmarks;
+
+import es.nellagames.viperx.engine.Direction;
+import es.nellagames.viperx.engine.GameRandom;
+import es.nellagames.viperx.engine.GameSimulation;
+import es.nellagames.viperx.engine.GameSnapshot;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+// Tick de GameSimulation con su publicación y la lectura del render. Las instantáneas se ponen al
+// día solo con las casillas cambiadas: el coste no debe crecer con el tablero (salvo al reiniciar).
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class PublishBenchmark {
+
+    private static final int SIDE = 4;
+    private static final Direction[] LOOP = {Direction.RIGHT, Direction.DOWN, Direction.LEFT, Direction.UP};
+
+    @Param({"10", "100", "1000", "2000"})
+    public int boardSize;
+
+    private GameSimulation simulation;
+    private int step;
+    private long now;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        simulation = new GameSimulation(new GameRandom(42), boardSize, boardSize);
+        step = 0;
+    }
+
+    @Benchmark
+    public long tickAndPublish() {
+        if (simulation.isPublishedGameOver()) {
+            simulation.requestRestart();
+            step = 0;
+        }
+        if (step % SIDE == 0) simulation.offerTurn(LOOP[(step / SIDE) % LOOP.length], now);
+        step++;
+        simulation.tick(++now);
+        GameSnapshot snapshot = simulation.latestSnapshot();
+        return snapshot.getSerial();
+    }
+}
@@ -0,0 +1,62 @@
+package es.nellagames.viperx.benchmarks;
+
+import es.nellagames.viperx.engine.SnakeBody;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+// Mover, crecer y encoger la serpiente con longitudes de hasta millones de celdas
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class SnakeBodyBenchmark {
+
+    @Param({"4", "1000", "1000000", "4000000"})
+    public int length;
+
+    private SnakeBody snake;
+    private int next;
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        snake = new SnakeBody(length);
+        for (int i = 0; i < length; i++) {
+            snake.pushTail(SnakeBody.pack(i & 0xFFFF, i >>> 16));
+        }
+        next = 0;
+    }
+
+    // Tick normal: nueva cabeza y se suelta la cola
+    @Benchmark
+    public int move() {
+        snake.pushHead(next++ & 0xFFFF);
+        return snake.popTail();
+    }
+
+    // Comer respuesta incorrecta: cabeza nueva y shrink de dos segmentos. El segundo pushHead no
+    // es parte del tick de GameEngine: solo mantiene el tamaño constante entre invocaciones
+    @Benchmark
+    public int growAndShrink() {
+        snake.pushHead(next++ & 0xFFFF);
+        snake.pushHead(next++ & 0xFFFF);
+        return snake.shrink(2, 1);
+    }
+
+    // Recorrido indexado del render
+    @Benchmark
+    public long iterate() {
+        long sum = 0;
+        int n = Math.min(snake.size(), 1024);
+        for (int i = 0; i < n; i++) sum += snake.get(i);
+        return sum;
+    }
+}
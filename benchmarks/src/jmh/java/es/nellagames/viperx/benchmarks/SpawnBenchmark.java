@@ -0,0 +1,51 @@
+package es.nellagames.viperx.benchmarks;
+
+import es.nellagames.viperx.engine.GameRandom;
+import es.nellagames.viperx.engine.OccupancyGrid;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+// Colocar y retirar una comida en una casilla libre al azar, con el tablero vacío o casi lleno
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class SpawnBenchmark {
+
+    @Param({"10", "100", "1000", "2000"})
+    public int boardSize;
+
+    // Fracción del tablero ocupada por la serpiente
+    @Param({"0.0", "0.5", "0.99"})
+    public double fill;
+
+    private OccupancyGrid grid;
+    private GameRandom random;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        grid = new OccupancyGrid(boardSize, boardSize);
+        random = new GameRandom(42);
+        int occupied = (int) (boardSize * (long) boardSize * fill);
+        for (int i = 0; i < occupied; i++) {
+            grid.set(grid.randomFree(random), OccupancyGrid.SNAKE);
+        }
+    }
+
+    @Benchmark
+    public int spawnFood() {
+        int index = grid.randomFree(random);
+        grid.set(index, OccupancyGrid.FOOD_BASE);
+        grid.set(index, OccupancyGrid.EMPTY);
+        return index;
+    }
+}
@@ -0,0 +1,50 @@
+package es.nellagames.viperx.benchmarks;
+
+import es.nellagames.viperx.engine.Direction;
+import es.nellagames.viperx.engine.GameEngine;
+import es.nellagames.viperx.engine.GameRandom;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+// Coste de un tick completo del motor. La serpiente recorre un cuadrado fijo junto a su
+// posición inicial para sobrevivir; si muere, se reinicia (coste incluido).
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class TickBenchmark {
+
+    private static final int SIDE = 4;
+    private static final Direction[] LOOP = {Direction.RIGHT, Direction.DOWN, Direction.LEFT, Direction.UP};
+
+    @Param({"10", "100", "1000", "2000"})
+    public int boardSize;
+
+    private GameEngine engine;
+    private int step;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        engine = new GameEngine(boardSize, boardSize, new GameRandom(42));
+        step = 0;
+    }
+
+    @Benchmark
+    public int tick() {
+        if (engine.isGameOver()) {
+            engine.restart();
+            step = 0;
+        }
+        engine.tick(LOOP[(step++ / SIDE) % LOOP.length]);
+        return engine.getScore();
+    }
+}
@@ -0,0 +1,21 @@
+plugins {
+    `java-library`
+}
+
+java {
+    sourceCompatibility = JavaVersion.VERSION_11
+    targetCompatibility = JavaVersion.VERSION_11
+}
+
+dependencies {
+    testImplementation(libs.junit)
+}
+
+// Reproduce grabaciones de partidas sin interfaz: ./gradlew :engine:replay -Preplay=a.vxr,b.vxr
+tasks.register<JavaExec>("replay") {
+    group = "verification"
+    description = "Replays recorded sessions headless and checks their checkpoints"
+    classpath = sourceSets["main"].runtimeClasspath
+    mainClass.set("es.nellagames.viperx.engine.ReplayPlayer")
+    args(providers.gradleProperty("replay").map { it.split(',') }.getOrElse(emptyList()))
+}
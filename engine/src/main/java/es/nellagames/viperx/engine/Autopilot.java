@@ -0,0 +1,263 @@
+package es.nellagames.viperx.engine;
+
+import java.util.Arrays;
+
+// Piloto automático: busca con BFS el camino más corto hasta la respuesta correcta, evitando
+// paredes, respuestas incorrectas y el cuerpo. El cuerpo se va liberando desde la cola: el
+// segmento k (0 = cabeza) deja de estorbar a partir del paso size - k + 1.
+// Solo sigue el camino si, tras comer, la serpiente aún podría llegar a su cola; si no, persigue
+// la cola, y si tampoco puede, va hacia la vecina con más espacio libre.
+// Un camino aceptado se sigue sin volver a buscar mientras nada cambie (misma pregunta, misma
+// longitud): en tableros grandes la búsqueda se paga una vez por comida y no una vez por tick.
+// Memoria: tres int y dos byte por casilla, reservados una vez por tamaño de tablero. Las marcas
+// llevan una base que sube en cada búsqueda en lugar de limpiarse: un tick no crea objetos. Solo
+// lo usa el hilo del motor.
+public final class Autopilot {
+
+    private static final Direction[] DIRECTIONS = Direction.values();
+
+    private int width, height;
+    private int[] queue;
+    // Búsqueda actual: casilla visitada si mark >= searchBase, a distancia mark - searchBase
+    private int[] mark;
+    private int searchBase, searchTop;
+    // Dirección (ordinal) por la que la búsqueda entró en cada casilla
+    private byte[] parent;
+    // Cuerpo: la casilla queda libre desde el paso bodyMark - bodyBase (si es <= 0, ya lo está)
+    private int[] bodyMark;
+    private int bodyBase, bodyTop;
+    // Camino aceptado como direcciones, del primer paso (path[0]) a la comida
+    private byte[] path;
+    private int pathLength, pathStep;
+    // Partida, pregunta, longitud y cabeza esperada con las que el camino sigue siendo válido
+    private GameEngine pathEngine;
+    private long pathQuestion;
+    private int pathSize, pathHead;
+    // Casillas alcanzadas en la última búsqueda, sin contar el origen
+    private int reached;
+    // Tras comer, las respuestas incorrectas cambian de sitio: la comprobación no las evita
+    private boolean avoidWrongFoods;
+
+    public Direction nextTurn(GameEngine engine) {
+        if (engine.isGameOver()) return null;
+        avoidWrongFoods = true;
+        ensureCapacity(engine.getWidth(), engine.getHeight());
+        OccupancyGrid grid = engine.getGrid();
+        SnakeBody snake = engine.getSnake();
+        int head = grid.indexOf(snake.head());
+
+        if (followsPath(engine, snake, head)) return nextPathStep(engine, head);
+        pathLength = 0;
+
+        FoodItem food = engine.getCorrectFood();
+        if (food != null) {
+            int target = grid.index(food.position.x, food.position.y);
+            markBody(grid, snake);
+            int steps = search(grid, head, target, true);
+            if (steps > 0) {
+                tracePath(head, target, steps);
+                if (canReachTailAfterEating(grid, snake, target, steps)) {
+                    pathLength = steps;
+                    pathStep = 0;
+                    pathEngine = engine;
+                    pathQuestion = engine.getQuestionSerial();
+                    pathSize = snake.size();
+                    return nextPathStep(engine, head);
+                }
+            }
+        }
+
+        markBody(grid, snake);
+        int next = farthestFromTail(grid, head, grid.indexOf(snake.tail()));
+        if (next >= 0) return turnTowards(engine, head, next);
+        return roomiestTurn(engine, grid, head);
+    }
+
+    // Comer la extra hace crecer la serpiente y retrasa la liberación del cuerpo: se vuelve a buscar
+    private boolean followsPath(GameEngine engine, SnakeBody snake, int head) {
+        return pathStep < pathLength && engine == pathEngine && head == pathHead
+                && engine.getQuestionSerial() == pathQuestion && snake.size() == pathSize;
+    }
+
+    private Direction nextPathStep(GameEngine engine, int head) {
+        Direction d = DIRECTIONS[path[pathStep++]];
+        pathHead = head + d.dy * width + d.dx;
+        return d == engine.getDirection() ? null : d;
+    }
+
+    // Persecución de la cola por el camino más largo de los posibles (la vecina desde la que la
+    // cola queda más lejos): da vueltas amplias y deja sitio a que la comida quede accesible.
+    // Una sola búsqueda desde la cola, con el cuerpo de ahora como obstáculo fijo, da la distancia
+    // de todas las vecinas de la cabeza a la vez
+    private int farthestFromTail(OccupancyGrid grid, int head, int tail) {
+        search(grid, tail, -1, false);
+        int x = head % width, y = head / width;
+        int best = -1, bestSteps = 0;
+        for (Direction d : DIRECTIONS) {
+            int nx = x + d.dx, ny = y + d.dy;
+            if (nx < 0 || ny < 0 || nx >= width || ny >= height) continue;
+            int next = ny * width + nx;
+            if (mark[next] < searchBase || !isPassable(grid, next, 1)) continue;
+            int steps = mark[next] - searchBase;
+            if (steps > bestSteps) {
+                bestSteps = steps;
+                best = next;
+            }
+        }
+        return best;
+    }
+
+    // Cuerpo tras recorrer path y comer: la cabeza en la comida, el camino detrás y después los
+    // segmentos antiguos que aún no han pasado (uno más que ahora, porque crece)
+    private boolean canReachTailAfterEating(OccupancyGrid grid, SnakeBody snake, int target, int steps) {
+        int length = snake.size() + 1;
+        int base = nextBodyBase(length);
+        int cell = target, tail = -1;
+        for (int k = 0; k < length; k++) {
+            if (k >= steps) cell = grid.indexOf(snake.get(k - steps));
+            bodyMark[cell] = base + length - k + 1;
+            tail = cell;
+            if (k < steps - 1) {
+                Direction d = DIRECTIONS[path[steps - 1 - k]];
+                cell -= d.dy * width + d.dx;
+            }
+        }
+        avoidWrongFoods = false;
+        boolean reachable = search(grid, target, tail, true) > 0;
+        avoidWrongFoods = true;
+        return reachable;
+    }
+
+    private void markBody(OccupancyGrid grid, SnakeBody snake) {
+        int size = snake.size();
+        int base = nextBodyBase(size);
+        for (int k = 0; k < size; k++) {
+            bodyMark[grid.indexOf(snake.get(k))] = base + size - k + 1;
+        }
+    }
+
+    private int search(OccupancyGrid grid, int from, int target, boolean timed) {
+        return search(grid, from, target, timed, nextSearchBase());
+    }
+
+    // BFS de from a target con el cuerpo marcado. Devuelve los pasos (y deja en parent por dónde
+    // se llegó) o -1 si no se puede llegar. Con timed el cuerpo se libera según avanza la cabeza;
+    // sin él es un obstáculo fijo (búsquedas que no parten de la cabeza)
+    private int search(OccupancyGrid grid, int from, int target, boolean timed, int base) {
+        int readPos = 0, writePos = 0;
+        queue[writePos++] = from;
+        mark[from] = base;
+        while (readPos < writePos) {
+            int cell = queue[readPos++];
+            int x = cell % width, y = cell / width;
+            int dist = mark[cell] - base + 1;
+            int step = timed ? dist : 0;
+            for (Direction d : DIRECTIONS) {
+                int nx = x + d.dx, ny = y + d.dy;
+                if (nx < 0 || ny < 0 || nx >= width || ny >= height) continue;
+                int next = ny * width + nx;
+                // Una casilla aún ocupada puede alcanzarse más tarde por otro camino: no se marca
+                if (mark[next] >= base || !isPassable(grid, next, step)) continue;
+                mark[next] = base + dist;
+                parent[next] = (byte) d.ordinal();
+                if (next == target) return finishSearch(writePos, base + dist, dist);
+                queue[writePos++] = next;
+            }
+        }
+        return finishSearch(writePos, mark[queue[writePos - 1]], -1);
+    }
+
+    private int finishSearch(int writePos, int top, int result) {
+        reached = writePos - 1;
+        if (top > searchTop) searchTop = top;
+        return result;
+    }
+
+    // Guarda en path las direcciones del camino de from a target siguiendo parent hacia atrás
+    private void tracePath(int from, int target, int steps) {
+        int cell = target;
+        for (int i = steps - 1; cell != from; i--) {
+            Direction d = DIRECTIONS[parent[cell]];
+            path[i] = parent[cell];
+            cell -= d.dy * width + d.dx;
+        }
+    }
+
+    private boolean isPassable(OccupancyGrid grid, int cell, int step) {
+        int freeAt = bodyMark[cell] - bodyBase;
+        if (freeAt > 0 && step < freeAt) return false;
+        if (!avoidWrongFoods) return true;
+        // Respuestas incorrectas: huecos 1..WRONG_FOOD_COUNT de GameEngine
+        byte kind = grid.get(cell);
+        return kind <= OccupancyGrid.FOOD_BASE || kind > OccupancyGrid.FOOD_BASE + GameEngine.WRONG_FOOD_COUNT;
+    }
+
+    // Sin camino a la comida ni a la cola: la vecina libre desde la que se alcanzan más casillas.
+    // Todas las vecinas comparten marcas: una que ya alcanzó otra está en su misma zona y no se
+    // vuelve a recorrer, así que en total es una pasada por el espacio libre
+    private Direction roomiestTurn(GameEngine engine, OccupancyGrid grid, int head) {
+        markBody(grid, engine.getSnake());
+        int base = nextSearchBase();
+        int x = head % width, y = head / width;
+        int best = -1, bestRoom = -1;
+        for (Direction d : DIRECTIONS) {
+            int nx = x + d.dx, ny = y + d.dy;
+            if (nx < 0 || ny < 0 || nx >= width || ny >= height) continue;
+            int next = ny * width + nx;
+            if (mark[next] >= base || !isPassable(grid, next, 1)) continue;
+            search(grid, next, -1, true, base);
+            if (reached > bestRoom) {
+                bestRoom = reached;
+                best = next;
+            }
+        }
+        return best >= 0 ? turnTowards(engine, head, best) : null;
+    }
+
+    // null si ya va en esa dirección: las grabaciones solo guardan giros
+    private Direction turnTowards(GameEngine engine, int head, int next) {
+        int dx = next % width - head % width, dy = next / width - head / width;
+        for (Direction d : DIRECTIONS) {
+            if (d.dx == dx && d.dy == dy) return d == engine.getDirection() ? null : d;
+        }
+        return null;
+    }
+
+    // Las distancias de una búsqueda quedan por encima de todas las anteriores
+    private int nextSearchBase() {
+        if (searchTop > Integer.MAX_VALUE - mark.length - 1) {
+            Arrays.fill(mark, 0);
+            searchTop = 0;
+        }
+        searchBase = searchTop + 1;
+        searchTop = searchBase;
+        return searchBase;
+    }
+
+    // Los pasos de liberación de un cuerpo de length segmentos van de base + 2 a base + length + 1
+    private int nextBodyBase(int length) {
+        if (bodyTop > Integer.MAX_VALUE - length - 2) {
+            Arrays.fill(bodyMark, 0);
+            bodyTop = 0;
+        }
+        bodyBase = bodyTop;
+        bodyTop = bodyBase + length + 1;
+        return bodyBase;
+    }
+
+    // Solo reserva al cambiar de tablero
+    private void ensureCapacity(int width, int height) {
+        if (width == this.width && height == this.height) return;
+        this.width = width;
+        this.height = height;
+        int n = width * height;
+        queue = new int[n];
+        mark = new int[n];
+        parent = new byte[n];
+        bodyMark = new int[n];
+        path = new byte[n];
+        searchBase = searchTop = 0;
+        bodyBase = bodyTop = 0;
+        pathLength = 0;
+    }
+}
@@ -0,0 +1,30 @@
+package es.nellagames.viperx.engine;
+
+// Celda inmutable del tablero
+public final class Cell {
+    public final int x;
+    public final int y;
+
+    public Cell(int x, int y) {
+        this.x = x;
+        this.y = y;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof Cell)) return false;
+        Cell c = (Cell) o;
+        return x == c.x && y == c.y;
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * x + y;
+    }
+
+    @Override
+    public String toString() {
+        return "(" + x + ", " + y + ")";
+    }
+}
@@ -0,0 +1,25 @@
+package es.nellagames.viperx.engine;
+
+
+public enum Direction {
+    UP(0, -1), DOWN(0, 1), LEFT(-1, 0), RIGHT(1, 0);
+
+    private static final Direction[] VALUES = values();
+
+    public final int dx, dy;
+
+    Direction(int dx, int dy) {
+        this.dx = dx;
+        this.dy = dy;
+    }
+
+    public boolean isOpposite(Direction d) {
+        return (this == UP && d == DOWN) || (this == DOWN && d == UP)
+                || (this == LEFT && d == RIGHT) || (this == RIGHT && d == LEFT);
+    }
+
+    // Sin la copia que crea values() en cada llamada
+    public static Direction fromOrdinal(int ordinal) {
+        return VALUES[ordinal];
+    }
+}
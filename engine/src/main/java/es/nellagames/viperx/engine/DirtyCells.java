@@ -0,0 +1,68 @@
+package es.nellagames.viperx.engine;
+
+// Casillas que han cambiado desde la última vez que el render las consumió.
+// El motor las añade en cada tick y el consumidor llama a clear() tras redibujarlas.
+// Si se llena (varios ticks sin consumir) o el tablero cambia entero, pasa a "todo sucio".
+public final class DirtyCells {
+
+    private static final int DEFAULT_CAPACITY = 64;
+
+    private final int[] cells;
+    private int size;
+    private boolean all = true;
+
+    public DirtyCells() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public DirtyCells(int capacity) {
+        cells = new int[Math.max(1, capacity)];
+    }
+
+    // Índice de casilla (OccupancyGrid.index)
+    public void add(int index) {
+        if (all) return;
+        if (size == cells.length) {
+            markAll();
+            return;
+        }
+        cells[size++] = index;
+    }
+
+    public void markAll() {
+        all = true;
+        size = 0;
+    }
+
+    public boolean isAll() {
+        return all;
+    }
+
+    public boolean isEmpty() {
+        return !all && size == 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int get(int i) {
+        if (i < 0 || i >= size) throw new IndexOutOfBoundsException("Dirty cell " + i + " of " + size);
+        return cells[i];
+    }
+
+    public void copyFrom(DirtyCells other) {
+        if (other.all || other.size > cells.length) {
+            markAll();
+            return;
+        }
+        all = false;
+        System.arraycopy(other.cells, 0, cells, 0, other.size);
+        size = other.size;
+    }
+
+    public void clear() {
+        all = false;
+        size = 0;
+    }
+}
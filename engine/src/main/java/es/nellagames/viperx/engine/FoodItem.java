@@ -0,0 +1,24 @@
+package es.nellagames.viperx.engine;
+
+// Comida colocada en el tablero con su número ya formateado para el render
+public final class FoodItem {
+    public final Cell position;
+    public final int value;
+    public final boolean isCorrect;
+    // Variante visual [0, GameEngine.FOOD_VARIANTS)
+    public final int variant;
+    public final String label;
+
+    public FoodItem(Cell position, int value, boolean isCorrect, int variant) {
+        this(position, value, String.valueOf(value), isCorrect, variant);
+    }
+
+    // label ya formateado (las preguntas traen los suyos)
+    public FoodItem(Cell position, int value, String label, boolean isCorrect, int variant) {
+        this.position = position;
+        this.value = value;
+        this.isCorrect = isCorrect;
+        this.variant = variant;
+        this.label = label;
+    }
+}
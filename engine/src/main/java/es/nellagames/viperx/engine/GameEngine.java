@@ -0,0 +1,299 @@
+package es.nellagames.viperx.engine;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+// Reglas del juego sin dependencias de Android: serpiente, preguntas, comida, colisiones y puntuación.
+// La vista solo llama a tick() con la entrada del jugador y dibuja el estado resultante.
+public class GameEngine {
+
+    // Eventos de la partida (sonidos, high score, etc.)
+    public interface Listener {
+        void onCorrectFood(int score);
+        void onWrongFood(int score);
+        void onBonusFood(int score);
+        void onGameOver(int finalScore);
+    }
+
+    // Motivo del game over
+    public enum DeathCause { WALL, SELF }
+
+    public static final int DEFAULT_BOARD_SIZE = 10;
+    public static final int FOOD_VARIANTS = 4;
+    public static final int INITIAL_LENGTH = 4;
+    // Tamaños de tablero admitidos: la serpiente inicial cabe con una casilla libre a cada lado y
+    // SnakeBody.pack guarda cada coordenada en 16 bits (el máximo deja además las rejillas en MB)
+    public static final int MIN_BOARD_WIDTH = INITIAL_LENGTH + 2;
+    public static final int MIN_BOARD_HEIGHT = 3;
+    public static final int MAX_BOARD_SIZE = 2048;
+    public static final Direction INITIAL_DIRECTION = Direction.RIGHT;
+    // Segmentos perdidos al comer una respuesta incorrecta (el que se iba a mover y uno más)
+    public static final int WRONG_FOOD_PENALTY = 2;
+    public static final int WRONG_FOOD_COUNT = 2;
+
+    // Huecos de comida en la rejilla de ocupación (OccupancyGrid.FOOD_BASE + hueco)
+    private static final int SLOT_CORRECT = 0;
+    private static final int SLOT_BONUS = WRONG_FOOD_COUNT + 1;
+
+    private final int width, height;
+    private GameRandom random;
+    private final QuizGenerator quiz;
+    private Listener listener;
+
+    // Estado del juego
+    private final SnakeBody snake = new SnakeBody();
+    private final OccupancyGrid grid;
+    // Casillas cambiadas desde que el render las consumió por última vez
+    private final DirtyCells dirtyCells = new DirtyCells();
+    private Direction direction = Direction.RIGHT;
+    private int previousTail;
+    private boolean lastTickMoved = false;
+    private Question question;
+    private long questionSerial = 0;
+    // Orden al azar de las respuestas incorrectas de la pregunta (reutilizado)
+    private final int[] distractorOrder = new int[Question.MAX_DISTRACTORS];
+    private int score = 0;
+    private boolean gameOver = false;
+    private DeathCause deathCause;
+
+    // Bonus
+    private int bonusValue = 5;
+    private final String bonusLabel = String.valueOf(bonusValue);
+
+    private FoodItem correctFood;
+    private final List<FoodItem> wrongFoods = new ArrayList<>();
+    private final List<FoodItem> wrongFoodsView = Collections.unmodifiableList(wrongFoods);
+    private FoodItem bonusFood;
+    private final FoodItem[] foodSlots = new FoodItem[SLOT_BONUS + 1];
+
+    public GameEngine() {
+        this(DEFAULT_BOARD_SIZE, DEFAULT_BOARD_SIZE, new GameRandom(System.nanoTime()));
+    }
+
+    public static void checkBoardSize(int width, int height) {
+        if (width < MIN_BOARD_WIDTH || height < MIN_BOARD_HEIGHT
+                || width > MAX_BOARD_SIZE || height > MAX_BOARD_SIZE) {
+            throw new IllegalArgumentException("Unsupported board size: " + width + "x" + height);
+        }
+    }
+
+    public GameEngine(int width, int height, GameRandom random) {
+        this(width, height, random, TieredQuizGenerator.standard());
+    }
+
+    public GameEngine(int width, int height, GameRandom random, QuizGenerator quiz) {
+        checkBoardSize(width, height);
+        this.width = width;
+        this.height = height;
+        this.random = random;
+        this.quiz = quiz;
+        this.grid = new OccupancyGrid(width, height);
+        restart();
+    }
+
+    public void setListener(Listener listener) {
+        this.listener = listener;
+    }
+
+    // Partida nueva con otro generador; su semilla es la que se guarda en la grabación
+    public void restart(GameRandom random) {
+        this.random = random;
+        restart();
+    }
+
+    public void restart() {
+        snake.clear();
+        grid.clear();
+        dirtyCells.markAll();
+        int row = height / 2;
+        for (int i = 0; i < INITIAL_LENGTH; i++) {
+            snake.pushTail(SnakeBody.pack(INITIAL_LENGTH - i, row));
+            int index = grid.index(INITIAL_LENGTH - i, row);
+            grid.set(index, OccupancyGrid.SNAKE);
+            grid.setLink(index, INITIAL_DIRECTION, INITIAL_DIRECTION);
+        }
+        previousTail = snake.tail();
+        direction = INITIAL_DIRECTION;
+        lastTickMoved = false;
+        score = 0;
+        gameOver = false;
+        deathCause = null;
+        correctFood = null;
+        wrongFoods.clear();
+        bonusFood = null;
+        for (int i = 0; i < foodSlots.length; i++) foodSlots[i] = null;
+        spawnQuizAndFoods();
+    }
+
+    // Avanza un tick. input: giro pedido por el jugador o null para seguir recto.
+    public void tick(Direction input) {
+        if (gameOver) return;
+
+        // Cambiar dirección si procede
+        if (input != null && !direction.isOpposite(input)) {
+            direction = input;
+        }
+
+        // Nueva cabeza
+        int headX = snake.x(0) + direction.dx;
+        int headY = snake.y(0) + direction.dy;
+
+        // Colisiones (la cola aún no se ha movido: chocar con ella también cuenta)
+        if (headX < 0 || headY < 0 || headX >= width || headY >= height) {
+            endGame(DeathCause.WALL);
+            return;
+        }
+        int headIndex = grid.index(headX, headY);
+        byte hit = grid.get(headIndex);
+        if (hit == OccupancyGrid.SNAKE) {
+            endGame(DeathCause.SELF);
+            return;
+        }
+
+        previousTail = snake.tail();
+        int neckIndex = grid.indexOf(snake.head());
+        grid.setLinkOut(neckIndex, direction);
+        snake.pushHead(SnakeBody.pack(headX, headY));
+        grid.set(headIndex, OccupancyGrid.SNAKE);
+        grid.setLink(headIndex, direction, direction);
+        dirtyCells.add(neckIndex);
+        dirtyCells.add(headIndex);
+        lastTickMoved = true;
+
+        boolean foodEaten = false;
+        boolean wrongFoodEaten = false;
+
+        // Qué comida había en la casilla, sin recorrer listas
+        int slot = hit - OccupancyGrid.FOOD_BASE;
+        if (slot == SLOT_CORRECT) {
+            score++;
+            spawnQuizAndFoods();
+            foodEaten = true;
+            if (listener != null) listener.onCorrectFood(score);
+        } else if (slot == SLOT_BONUS) {
+            score += bonusValue;
+            bonusFood = null;
+            foodSlots[SLOT_BONUS] = null;
+            foodEaten = true;
+            if (listener != null) listener.onBonusFood(score);
+        } else if (slot > SLOT_CORRECT) {
+            wrongFoodEaten = true;
+            spawnQuizAndFoods();
+            if (listener != null) listener.onWrongFood(score);
+        }
+
+        // Tamaño de serpiente según acción
+        if (wrongFoodEaten) {
+            // shrink solo baja el tamaño en O(1): antes se vacían en la rejilla las casillas que suelta
+            int size = snake.size();
+            int removed = Math.min(WRONG_FOOD_PENALTY, size - 1);
+            for (int i = size - removed; i < size; i++) vacate(snake.get(i));
+            snake.shrink(WRONG_FOOD_PENALTY, 1);
+            // La cola salta varias celdas: sin interpolación
+            previousTail = snake.tail();
+        } else if (!foodEaten) {
+            vacate(snake.popTail());
+        } else {
+            // Al crecer la cola no se mueve
+            previousTail = snake.tail();
+        }
+        // La nueva cola cambia de sprite
+        dirtyCells.add(grid.indexOf(snake.tail()));
+    }
+
+    private void vacate(int packedCell) {
+        int index = grid.indexOf(packedCell);
+        grid.set(index, OccupancyGrid.EMPTY);
+        dirtyCells.add(index);
+    }
+
+    private void endGame(DeathCause cause) {
+        gameOver = true;
+        deathCause = cause;
+        lastTickMoved = false;
+        if (listener != null) listener.onGameOver(score);
+    }
+
+    private void spawnQuizAndFoods() {
+        // Pregunta ya preparada del nivel de la puntuación: sin cálculo ni textos nuevos
+        questionSerial++;
+        question = quiz.next(score, random);
+
+        // Retirar la comida anterior que siga en el tablero
+        for (int i = 0; i < foodSlots.length; i++) {
+            FoodItem old = foodSlots[i];
+            if (old != null) {
+                int index = grid.index(old.position.x, old.position.y);
+                if (grid.get(index) == OccupancyGrid.FOOD_BASE + i) grid.set(index, OccupancyGrid.EMPTY);
+                dirtyCells.add(index);
+                foodSlots[i] = null;
+            }
+        }
+
+        int answer = question.answer;
+        correctFood = placeFood(SLOT_CORRECT, answer, question.answerLabel, true, foodVariant(answer));
+
+        // WRONG_FOOD_COUNT incorrectas distintas: Fisher-Yates parcial sobre sus índices
+        wrongFoods.clear();
+        int candidates = question.getDistractorCount();
+        for (int i = 0; i < candidates; i++) distractorOrder[i] = i;
+        for (int i = 0; i < WRONG_FOOD_COUNT; i++) {
+            int pick = i + random.nextInt(candidates - i);
+            int distractor = distractorOrder[pick];
+            distractorOrder[pick] = distractorOrder[i];
+            int value = question.getDistractor(distractor);
+            FoodItem wrong = placeFood(SLOT_CORRECT + 1 + i, value, question.getDistractorLabel(distractor),
+                    false, foodVariant(value));
+            if (wrong != null) wrongFoods.add(wrong);
+        }
+
+        if (random.nextInt(5) == 0) {
+            bonusFood = placeFood(SLOT_BONUS, bonusValue, bonusLabel, true, random.nextInt(FOOD_VARIANTS));
+        } else {
+            bonusFood = null;
+        }
+    }
+
+    // Coloca una comida en una casilla libre al azar en O(1); null si el tablero está lleno
+    private FoodItem placeFood(int slot, int value, String label, boolean isCorrect, int variant) {
+        int index = grid.randomFree(random);
+        if (index < 0) return null;
+        grid.set(index, (byte) (OccupancyGrid.FOOD_BASE + slot));
+        dirtyCells.add(index);
+        FoodItem food = new FoodItem(new Cell(grid.x(index), grid.y(index)), value, label, isCorrect, variant);
+        foodSlots[slot] = food;
+        return food;
+    }
+
+    private static int foodVariant(int value) {
+        return Math.abs(value) % FOOD_VARIANTS;
+    }
+
+    public int getWidth() { return width; }
+    public int getHeight() { return height; }
+    public OccupancyGrid getGrid() { return grid; }
+    // El render las vacía con clear() después de redibujarlas
+    public DirtyCells getDirtyCells() { return dirtyCells; }
+
+    // Cabeza en el índice 0
+    public SnakeBody getSnake() { return snake; }
+    public Direction getDirection() { return direction; }
+    // Celda empaquetada que ocupaba la cola antes del último tick
+    public int getPreviousTail() { return previousTail; }
+    public boolean isLastTickMoved() { return lastTickMoved; }
+
+    public Question getQuestion() { return question; }
+    // Aumenta con cada pregunta nueva
+    public long getQuestionSerial() { return questionSerial; }
+    public int getCorrectAnswer() { return question.answer; }
+
+    public FoodItem getCorrectFood() { return correctFood; }
+    public List<FoodItem> getWrongFoods() { return wrongFoodsView; }
+    public FoodItem getBonusFood() { return bonusFood; }
+
+    public int getScore() { return score; }
+    public boolean isGameOver() { return gameOver; }
+    // null mientras la partida sigue
+    public DeathCause getDeathCause() { return deathCause; }
+}
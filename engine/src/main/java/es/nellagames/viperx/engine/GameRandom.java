@@ -0,0 +1,61 @@
+package es.nellagames.viperx.engine;
+
+// Generador pseudoaleatorio con semilla y divisible (SplitMix64). La sesión tiene uno raíz y cada
+// subsistema o partida recibe un split(): todo el árbol se reproduce a partir de la semilla raíz.
+// El algoritmo está fijado aquí, así que una semilla da la misma secuencia en cualquier JVM.
+// No es seguro entre hilos: cada generador pertenece a un solo hilo.
+public final class GameRandom {
+
+    private static final long GOLDEN_GAMMA = 0x9e3779b97f4a7c15L;
+
+    private final long seed;
+    private long state;
+
+    public GameRandom(long seed) {
+        this.seed = seed;
+        this.state = seed;
+    }
+
+    // Semilla con la que se creó (la que se guarda en las grabaciones)
+    public long getSeed() {
+        return seed;
+    }
+
+    public long nextLong() {
+        state += GOLDEN_GAMMA;
+        return mix64(state);
+    }
+
+    // Uniforme en [0, bound). Multiplica 31 bits aleatorios por bound: el sesgo es despreciable
+    // para los rangos pequeños del juego y no hay bucle de rechazo.
+    public int nextInt(int bound) {
+        if (bound <= 0) throw new IllegalArgumentException("Bound must be positive: " + bound);
+        return (int) (((nextLong() >>> 33) * bound) >>> 31);
+    }
+
+    public boolean nextBoolean() {
+        return nextLong() < 0;
+    }
+
+    // Uniforme en [0, 1)
+    public float nextFloat() {
+        return (nextLong() >>> 40) * 0x1.0p-24f;
+    }
+
+    // Generador independiente cuya semilla sale de este
+    public GameRandom split() {
+        return new GameRandom(nextLong());
+    }
+
+    // El split() número index (desde 0) de new GameRandom(seed), calculado sin generar los
+    // anteriores: permite repartir flujos independientes entre hilos en cualquier orden
+    public static GameRandom split(long seed, long index) {
+        return new GameRandom(mix64(seed + (index + 1) * GOLDEN_GAMMA));
+    }
+
+    private static long mix64(long z) {
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+}
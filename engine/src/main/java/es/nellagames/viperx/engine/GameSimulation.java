@@ -0,0 +1,224 @@
+package es.nellagames.viperx.engine;
+
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+// Dueña del motor en el hilo de simulación. Los demás hilos no tocan el motor:
+// - el hilo de UI manda giros por la InputQueue y órdenes (reiniciar, cambiar tablero) como mensajes;
+// - el render lee instantáneas publicadas por un TripleBuffer, sin bloquear la simulación.
+// Toda la aleatoriedad sale del generador de la sesión: cada partida recibe un split() y se graba
+// como su semilla más los giros por tick (ReplayRecorder), que se entregan al ReplaySink al acabar.
+public final class GameSimulation {
+
+    // Recibe la grabación de cada partida terminada (game over, reinicio o cambio de tablero),
+    // en el hilo de simulación
+    public interface ReplaySink {
+        void onReplayFinished(byte[] replay);
+    }
+
+    // Orden del hilo de UI, aplicada en el hilo de simulación antes del siguiente tick
+    private static final class Command {
+        static final int RESTART = 0, BOARD_SIZE = 1, AUTOPILOT = 2;
+        final int type, width, height;
+        // AUTOPILOT: estado pedido y resets de la cola de entrada al pedirlo
+        final boolean enabled;
+        final int inputResets;
+
+        Command(int type, int width, int height) {
+            this(type, width, height, false, 0);
+        }
+
+        Command(int type, int width, int height, boolean enabled, int inputResets) {
+            this.type = type;
+            this.width = width;
+            this.height = height;
+            this.enabled = enabled;
+            this.inputResets = inputResets;
+        }
+    }
+
+    private final ConcurrentLinkedQueue<Command> commands = new ConcurrentLinkedQueue<>();
+    private final InputQueue input = new InputQueue();
+    private final TripleBuffer<GameSnapshot> snapshots =
+            new TripleBuffer<>(new GameSnapshot(), new GameSnapshot(), new GameSnapshot());
+
+    // Solo hilo de simulación
+    private final GameRandom random;
+    private GameEngine engine;
+    private GameEngine.Listener listener;
+    private final ReplayRecorder recorder = new ReplayRecorder();
+    private final GridJournal journal = new GridJournal();
+    private ReplaySink replaySink;
+    private long serial = 0;
+    private long tickTimeNanos;
+    private Autopilot autopilot;
+
+    // Modo demo: el piloto automático sustituye a la entrada del jugador. autopilotEnabled es lo
+    // pedido desde la UI; autopilotActive, lo aplicado en el hilo de simulación
+    private volatile boolean autopilotEnabled;
+    private volatile boolean autopilotActive;
+    private volatile SpeedCurve speedCurve = SpeedCurve.DEFAULT;
+
+    // Resumen del último estado publicado, legible desde cualquier hilo
+    private volatile int publishedScore;
+    private volatile boolean publishedGameOver;
+    private volatile long publishedSerial;
+
+    // random: generador de la sesión, del que sale el de cada partida
+    public GameSimulation(GameRandom random) {
+        this(random, GameEngine.DEFAULT_BOARD_SIZE, GameEngine.DEFAULT_BOARD_SIZE);
+    }
+
+    public GameSimulation(GameRandom random, int width, int height) {
+        this.random = random;
+        GameRandom gameRandom = random.split();
+        engine = new GameEngine(width, height, gameRandom);
+        recorder.begin(width, height, gameRandom.getSeed());
+        input.reset(engine.getDirection());
+        tickTimeNanos = System.nanoTime();
+        publish();
+    }
+
+    // Los eventos del motor llegan en el hilo de simulación
+    public void setListener(GameEngine.Listener listener) {
+        this.listener = listener;
+        engine.setListener(listener);
+    }
+
+    // Antes de arrancar el hilo de simulación
+    public void setReplaySink(ReplaySink replaySink) {
+        this.replaySink = replaySink;
+    }
+
+    // --- Hilo de UI ---
+
+    // Con el piloto puesto, o hasta que se aplique su salida, no se encola nada: la cola filtraría
+    // contra una dirección que el piloto ya cambió
+    public boolean offerTurn(Direction direction, long timestampNanos) {
+        if (autopilotEnabled || autopilotActive) return false;
+        return input.offer(direction, timestampNanos);
+    }
+
+    public void requestRestart() {
+        input.reset(GameEngine.INITIAL_DIRECTION);
+        commands.add(new Command(Command.RESTART, 0, 0));
+    }
+
+    // Se valida aquí, en el hilo que lo pide: en el del motor la excepción tumbaría la simulación
+    public void requestBoardSize(int width, int height) {
+        GameEngine.checkBoardSize(width, height);
+        input.reset(GameEngine.INITIAL_DIRECTION);
+        commands.add(new Command(Command.BOARD_SIZE, width, height));
+    }
+
+    // Se aplica en el hilo de simulación, que resincroniza la cola con la dirección real
+    public void setAutopilot(boolean enabled) {
+        autopilotEnabled = enabled;
+        commands.add(new Command(Command.AUTOPILOT, 0, 0, enabled, input.getResetCount()));
+    }
+
+    public boolean isAutopilot() {
+        return autopilotEnabled;
+    }
+
+    // Se aplica desde el siguiente tick
+    public void setSpeedCurve(SpeedCurve speedCurve) {
+        this.speedCurve = speedCurve;
+    }
+
+    public boolean hasPendingCommands() {
+        return !commands.isEmpty();
+    }
+
+    public int getPublishedScore() { return publishedScore; }
+    public boolean isPublishedGameOver() { return publishedGameOver; }
+    // Serie de la última instantánea publicada (GameSnapshot.getSerial)
+    public long getPublishedSerial() { return publishedSerial; }
+
+    // --- Hilo de simulación ---
+
+    // Aplica las órdenes pendientes y publica si alguna cambió la partida; devuelve si publicó
+    public boolean processCommands(long nowNanos) {
+        boolean changed = false;
+        Command command;
+        while ((command = commands.poll()) != null) {
+            if (command.type == Command.AUTOPILOT) {
+                // No cambia nada que pintar
+                input.resync(engine.getDirection(), command.inputResets);
+                autopilotActive = command.enabled;
+                continue;
+            }
+            if (command.type == Command.RESTART) {
+                finishRecording();
+                GameRandom gameRandom = random.split();
+                engine.restart(gameRandom);
+                recorder.begin(engine.getWidth(), engine.getHeight(), gameRandom.getSeed());
+            } else if (command.width != engine.getWidth() || command.height != engine.getHeight()) {
+                finishRecording();
+                GameRandom gameRandom = random.split();
+                engine = new GameEngine(command.width, command.height, gameRandom);
+                engine.setListener(listener);
+                recorder.begin(command.width, command.height, gameRandom.getSeed());
+            }
+            changed = true;
+        }
+        if (changed) publish();
+        return changed;
+    }
+
+    // Un tick: órdenes, como mucho un giro de la cola y avance del motor.
+    // Devuelve cuánto esperó el giro aplicado desde que se encoló, o -1 si no hubo giro.
+    public long tick(long nowNanos) {
+        processCommands(nowNanos);
+        if (engine.isGameOver()) return -1;
+        Direction turn = input.poll();
+        long latency = turn != null ? nowNanos - input.getLastTimestamp() : -1;
+        if (autopilotActive) {
+            // Los giros del jugador se descartan; la grabación guarda los del piloto
+            if (autopilot == null) autopilot = new Autopilot();
+            turn = autopilot.nextTurn(engine);
+            latency = -1;
+        }
+        engine.tick(turn);
+        recorder.recordTick(turn, engine.getScore(), engine.getSnake().size());
+        if (engine.isGameOver()) finishRecording();
+        tickTimeNanos = nowNanos;
+        publish();
+        return latency;
+    }
+
+    // Cierra la grabación en curso, si la hay, y la entrega (salvo partidas sin ningún tick)
+    private void finishRecording() {
+        if (!recorder.isRecording()) return;
+        boolean empty = recorder.getTicks() == 0;
+        byte[] replay = recorder.finish(engine.getScore(), engine.getSnake().size(), engine.isGameOver());
+        if (replaySink != null && !empty) replaySink.onReplayFinished(replay);
+    }
+
+    // Tiempo hasta el siguiente tick según la puntuación actual
+    public long getTickNanos() {
+        return speedCurve.tickNanos(engine.getScore());
+    }
+
+    // Acceso directo al motor, solo desde el hilo de simulación
+    public GameEngine getEngine() {
+        return engine;
+    }
+
+    private void publish() {
+        GameSnapshot back = snapshots.back();
+        journal.record(engine.getDirtyCells());
+        back.capture(engine, journal, serial + 1, serial, tickTimeNanos, getTickNanos());
+        engine.getDirtyCells().clear();
+        serial++;
+        publishedScore = engine.getScore();
+        publishedGameOver = engine.isGameOver();
+        snapshots.publish();
+        publishedSerial = serial;
+    }
+
+    // --- Hilo de render ---
+
+    public GameSnapshot latestSnapshot() {
+        return snapshots.latest();
+    }
+}
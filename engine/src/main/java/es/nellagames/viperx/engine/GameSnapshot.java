@@ -0,0 +1,119 @@
+package es.nellagames.viperx.engine;
+
+// Copia del estado de la partida para el render, rellenada por el hilo de simulación y leída
+// por el de dibujo a través de un TripleBuffer. Se reutiliza: capture() no crea objetos salvo
+// al cambiar el tamaño del tablero (las comidas son inmutables y se comparten). Las casillas se
+// ponen al día con el GridJournal: solo se copian las que cambiaron desde la última escritura.
+public final class GameSnapshot {
+
+    // Publicación a la que corresponde y la anterior: si el render ve un salto, se perdió
+    // alguna y sus casillas sucias no están aquí
+    private long serial = -1, previousSerial = -1;
+    // Momento (System.nanoTime) del último tick y duración del tick en curso, para interpolar
+    private long tickTimeNanos, tickIntervalNanos;
+
+    private int width, height;
+    private byte[] cells = new byte[0];
+    private byte[] links = new byte[0];
+    // Posición del GridJournal hasta la que cells y links están al día
+    private int gridEpoch = -1;
+    private long gridPosition;
+    private final DirtyCells dirtyCells = new DirtyCells();
+
+    private int head, neck, tail, previousTail, length;
+    private Direction direction = Direction.RIGHT;
+    private boolean lastTickMoved, gameOver;
+
+    private int score;
+    private long questionSerial = -1;
+    private Question question;
+
+    private FoodItem correctFood, bonusFood;
+    private final FoodItem[] wrongFoods = new FoodItem[GameEngine.WRONG_FOOD_COUNT];
+    private int wrongFoodCount;
+
+    // Copia el estado del motor y las casillas que cambiaron desde la publicación anterior
+    // journal ya debe incluir las casillas sucias de esta publicación
+    void capture(GameEngine engine, GridJournal journal, long serial, long previousSerial,
+                 long tickTimeNanos, long tickIntervalNanos) {
+        this.serial = serial;
+        this.previousSerial = previousSerial;
+        this.tickTimeNanos = tickTimeNanos;
+        this.tickIntervalNanos = tickIntervalNanos;
+
+        OccupancyGrid grid = engine.getGrid();
+        width = grid.getWidth();
+        height = grid.getHeight();
+        if (cells.length != width * height) {
+            cells = new byte[width * height];
+            links = new byte[width * height];
+            gridEpoch = -1;
+        }
+        if (journal.covers(gridEpoch, gridPosition)) {
+            for (long p = gridPosition; p < journal.getEnd(); p++) grid.copyCell(journal.get(p), cells, links);
+        } else {
+            grid.copyCells(cells, links);
+        }
+        gridEpoch = journal.getEpoch();
+        gridPosition = journal.getEnd();
+        dirtyCells.copyFrom(engine.getDirtyCells());
+
+        SnakeBody snake = engine.getSnake();
+        length = snake.size();
+        head = snake.head();
+        neck = length > 1 ? snake.get(1) : head;
+        tail = snake.tail();
+        previousTail = engine.getPreviousTail();
+        direction = engine.getDirection();
+        lastTickMoved = engine.isLastTickMoved();
+        gameOver = engine.isGameOver();
+
+        score = engine.getScore();
+        questionSerial = engine.getQuestionSerial();
+        question = engine.getQuestion();
+
+        correctFood = engine.getCorrectFood();
+        bonusFood = engine.getBonusFood();
+        wrongFoodCount = Math.min(wrongFoods.length, engine.getWrongFoods().size());
+        for (int i = 0; i < wrongFoods.length; i++) {
+            wrongFoods[i] = i < wrongFoodCount ? engine.getWrongFoods().get(i) : null;
+        }
+    }
+
+    public long getSerial() { return serial; }
+    public long getPreviousSerial() { return previousSerial; }
+    public long getTickTimeNanos() { return tickTimeNanos; }
+    public long getTickIntervalNanos() { return tickIntervalNanos; }
+
+    public int getWidth() { return width; }
+    public int getHeight() { return height; }
+    public int index(int x, int y) { return y * width + x; }
+    public int indexOf(int packedCell) { return SnakeBody.unpackY(packedCell) * width + SnakeBody.unpackX(packedCell); }
+    public int x(int index) { return index % width; }
+    public int y(int index) { return index / width; }
+    public byte get(int index) { return cells[index]; }
+    public Direction linkIn(int index) { return Direction.fromOrdinal(links[index] & 0x3); }
+    public Direction linkOut(int index) { return Direction.fromOrdinal((links[index] >> 2) & 0x3); }
+    public DirtyCells getDirtyCells() { return dirtyCells; }
+
+    // Celdas empaquetadas (SnakeBody.pack)
+    public int getHead() { return head; }
+    public int getNeck() { return neck; }
+    public int getTail() { return tail; }
+    public int getPreviousTail() { return previousTail; }
+    public int getLength() { return length; }
+    public Direction getDirection() { return direction; }
+    public boolean isLastTickMoved() { return lastTickMoved; }
+    public boolean isGameOver() { return gameOver; }
+
+    public int getScore() { return score; }
+    // Cambia cada vez que sale una pregunta nueva
+    public long getQuestionSerial() { return questionSerial; }
+    // Inmutable y con el texto ya formateado
+    public Question getQuestion() { return question; }
+
+    public FoodItem getCorrectFood() { return correctFood; }
+    public FoodItem getBonusFood() { return bonusFood; }
+    public int getWrongFoodCount() { return wrongFoodCount; }
+    public FoodItem getWrongFood(int i) { return wrongFoods[i]; }
+}
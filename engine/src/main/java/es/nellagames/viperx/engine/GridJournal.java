@@ -0,0 +1,38 @@
+package es.nellagames.viperx.engine;
+
+// Registro de las casillas cambiadas en las últimas publicaciones de GameSimulation. Cada buffer
+// de GameSnapshot recuerda hasta qué posición del registro está al día y, al volver a escribirse,
+// copia solo las casillas registradas desde entonces: publicar cuesta lo que cambió, no W×H.
+// Un cambio de tablero entero (reinicio, tablero nuevo) sube la época y obliga a copiarlo todo,
+// igual que quedarse más de CAPACITY casillas atrás. Solo hilo de simulación.
+final class GridJournal {
+
+    // Potencia de dos; un tick cambia unas pocas casillas
+    static final int CAPACITY = 4096;
+    private static final int MASK = CAPACITY - 1;
+
+    private final int[] ring = new int[CAPACITY];
+    // Casillas registradas desde el principio
+    private long end;
+    private int epoch;
+
+    void record(DirtyCells dirty) {
+        if (dirty.isAll()) {
+            epoch++;
+            return;
+        }
+        for (int i = 0; i < dirty.size(); i++) ring[(int) (end++ & MASK)] = dirty.get(i);
+    }
+
+    long getEnd() { return end; }
+    int getEpoch() { return epoch; }
+
+    // Si un buffer al día hasta (epoch, position) se puede actualizar solo con el registro
+    boolean covers(int epoch, long position) {
+        return epoch == this.epoch && end - position <= CAPACITY;
+    }
+
+    int get(long position) {
+        return ring[(int) (position & MASK)];
+    }
+}
@@ -0,0 +1,73 @@
+package es.nellagames.viperx.engine;
+
+// Histograma de cubetas fijas y anchura constante, sin reservar memoria al registrar.
+// Los valores por encima del rango van a una cubeta de desbordamiento (se sigue guardando el máximo).
+// Se pueden sumar histogramas con la misma forma, p. ej. uno por hilo al final de una simulación.
+public final class Histogram {
+
+    private final long bucketWidth;
+    private final long[] counts;
+    private long overflow;
+    private long total;
+    private long sum;
+    private long max;
+
+    // bucketWidth: unidades por cubeta; buckets: número de cubetas antes del desbordamiento
+    public Histogram(long bucketWidth, int buckets) {
+        if (bucketWidth <= 0 || buckets <= 0) {
+            throw new IllegalArgumentException("Invalid histogram shape: " + bucketWidth + " x " + buckets);
+        }
+        this.bucketWidth = bucketWidth;
+        this.counts = new long[buckets];
+    }
+
+    public void record(long value) {
+        if (value < 0) value = 0;
+        long bucket = value / bucketWidth;
+        if (bucket < counts.length) counts[(int) bucket]++;
+        else overflow++;
+        total++;
+        sum += value;
+        if (value > max) max = value;
+    }
+
+    public long getCount() { return total; }
+    public long getMax() { return max; }
+    public long getOverflow() { return overflow; }
+
+    public double getMean() {
+        return total == 0 ? 0 : (double) sum / total;
+    }
+
+    // Límite superior de la cubeta que contiene el percentil p (0-100); el máximo si cae en desbordamiento
+    public long percentile(double p) {
+        if (total == 0) return 0;
+        long rank = (long) Math.ceil(total * (p / 100.0));
+        if (rank < 1) rank = 1;
+        long seen = 0;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen >= rank) return Math.min(max, (i + 1) * bucketWidth);
+        }
+        return max;
+    }
+
+    public void merge(Histogram other) {
+        if (other.bucketWidth != bucketWidth || other.counts.length != counts.length) {
+            throw new IllegalArgumentException("Histogram shapes differ");
+        }
+        for (int i = 0; i < counts.length; i++) counts[i] += other.counts[i];
+        overflow += other.overflow;
+        total += other.total;
+        sum += other.sum;
+        if (other.max > max) max = other.max;
+    }
+
+    public void reset() {
+        for (int i = 0; i < counts.length; i++) counts[i] = 0;
+        overflow = 0;
+        total = 0;
+        sum = 0;
+        max = 0;
+    }
+}
@@ -0,0 +1,110 @@
+package es.nellagames.viperx.engine;
+
+// Cola circular de giros con marca de tiempo, de un solo productor (hilo de UI) y un solo
+// consumidor (hilo de juego), sin locks ni objetos por evento. Los giros opuestos o repetidos
+// respecto al último giro encolado se descartan al encolar, así cada elemento es un giro válido
+// y el consumidor puede aplicar uno por tick sin perder pulsaciones rápidas (p. ej. UP y LEFT).
+public final class InputQueue {
+
+    private static final int DEFAULT_CAPACITY = 8;
+
+    private final byte[] directions;
+    private final long[] timestamps;
+    private final int mask;
+    // head solo lo escribe el consumidor; tail y discardBefore solo el productor.
+    // volatile publica los datos entre hilos.
+    private volatile int head, tail;
+    // Los elementos anteriores a esta posición se encolaron antes del último reset y se ignoran
+    private volatile int discardBefore;
+    // Dirección resultante tras aplicar todo lo encolado (solo la usa el productor)
+    private Direction lastQueued = Direction.RIGHT;
+    private long lastTimestamp;
+    // Resets del productor (solo los toca el productor)
+    private int resetCount;
+    // Resincronización pedida por el consumidor (resync): syncSerial, volatile, publica los otros
+    // dos; el productor la aplica en su siguiente offer
+    private volatile int syncSerial;
+    private int syncDirection, syncResetCount;
+    private int appliedSync;
+
+    public InputQueue() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public InputQueue(int capacity) {
+        int size = Integer.highestOneBit(Math.max(2, capacity) - 1) << 1;
+        directions = new byte[size];
+        timestamps = new long[size];
+        mask = size - 1;
+    }
+
+    // Productor. Devuelve false si el giro se descarta (opuesto, repetido o cola llena).
+    public boolean offer(Direction direction, long timestampNanos) {
+        applySync();
+        if (direction == lastQueued || direction.isOpposite(lastQueued)) return false;
+        int t = tail;
+        if (t - head == directions.length) return false;
+        directions[t & mask] = (byte) direction.ordinal();
+        timestamps[t & mask] = timestampNanos;
+        tail = t + 1;
+        lastQueued = direction;
+        return true;
+    }
+
+    private void applySync() {
+        int serial = syncSerial;
+        if (serial == appliedSync) return;
+        appliedSync = serial;
+        // Un reset posterior a la petición ya dejó lastQueued como la partida que viene
+        if (syncResetCount == resetCount) lastQueued = Direction.fromOrdinal(syncDirection);
+    }
+
+    // Consumidor: siguiente giro o null si no hay; su marca de tiempo queda en getLastTimestamp()
+    public Direction poll() {
+        int h = head;
+        int discard = discardBefore;
+        if (h - discard < 0) h = discard;
+        if (h == tail) {
+            head = h;
+            return null;
+        }
+        Direction direction = Direction.fromOrdinal(directions[h & mask]);
+        lastTimestamp = timestamps[h & mask];
+        head = h + 1;
+        return direction;
+    }
+
+    public long getLastTimestamp() {
+        return lastTimestamp;
+    }
+
+    public int size() {
+        int h = head;
+        int discard = discardBefore;
+        return tail - (h - discard < 0 ? discard : h);
+    }
+
+    // Productor: descarta lo encolado al empezar partida; current es la dirección inicial de la
+    // serpiente. Solo toca campos del productor, así que no hace falta parar al consumidor.
+    public void reset(Direction current) {
+        discardBefore = tail;
+        lastQueued = current;
+        resetCount++;
+    }
+
+    // Productor: número de resets hechos, para acompañar una petición que acabará en resync
+    public int getResetCount() {
+        return resetCount;
+    }
+
+    // Consumidor: descarta lo encolado y hace que el productor filtre lo siguiente contra current,
+    // la dirección real de la serpiente (p. ej. al salir del piloto automático, que gira sin pasar
+    // por la cola). producerResets: getResetCount() al pedirlo; si el productor reinició después,
+    // la resincronización ya no vale y se ignora.
+    public void resync(Direction current, int producerResets) {
+        head = tail;
+        syncDirection = current.ordinal();
+        syncResetCount = producerResets;
+        syncSerial = syncSerial + 1;
+    }
+}
@@ -0,0 +1,126 @@
+package es.nellagames.viperx.engine;
+
+// Ocupación del tablero por celda: qué hay en cada casilla (O(1)) y un índice denso de
+// casillas libres con borrado por intercambio para elegir una libre al azar en O(1).
+public final class OccupancyGrid {
+
+    public static final byte EMPTY = 0;
+    public static final byte SNAKE = 1;
+    // Las comidas se guardan como FOOD_BASE + hueco, ver GameEngine
+    public static final byte FOOD_BASE = 2;
+
+    private final int width, height;
+    private final byte[] cells;
+    // Forma de cada segmento de serpiente: dirección de entrada (bits 0-1) y de salida (bits 2-3),
+    // para que el render elija el sprite mirando solo la casilla
+    private final byte[] links;
+    // free[0..freeCount) son índices de casillas libres; freePos[i] es la posición de i en free o -1
+    private final int[] free;
+    private final int[] freePos;
+    private int freeCount;
+
+    public OccupancyGrid(int width, int height) {
+        this.width = width;
+        this.height = height;
+        int n = width * height;
+        cells = new byte[n];
+        links = new byte[n];
+        free = new int[n];
+        freePos = new int[n];
+        clear();
+    }
+
+    public void clear() {
+        int n = cells.length;
+        for (int i = 0; i < n; i++) {
+            cells[i] = EMPTY;
+            free[i] = i;
+            freePos[i] = i;
+        }
+        freeCount = n;
+    }
+
+    public int getWidth() { return width; }
+    public int getHeight() { return height; }
+
+    public int index(int x, int y) {
+        return y * width + x;
+    }
+
+    public int indexOf(int packedCell) {
+        return SnakeBody.unpackY(packedCell) * width + SnakeBody.unpackX(packedCell);
+    }
+
+    public int x(int index) {
+        return index % width;
+    }
+
+    public int y(int index) {
+        return index / width;
+    }
+
+    public byte get(int index) {
+        return cells[index];
+    }
+
+    public byte get(int x, int y) {
+        return cells[y * width + x];
+    }
+
+    public void set(int index, byte kind) {
+        byte old = cells[index];
+        if (old == kind) return;
+        cells[index] = kind;
+        if (old == EMPTY) {
+            // Sale de la lista de libres: el último ocupa su hueco
+            int pos = freePos[index];
+            int last = free[--freeCount];
+            free[pos] = last;
+            freePos[last] = pos;
+            freePos[index] = -1;
+        } else if (kind == EMPTY) {
+            free[freeCount] = index;
+            freePos[index] = freeCount++;
+        }
+    }
+
+    public void setLink(int index, Direction in, Direction out) {
+        links[index] = (byte) (in.ordinal() | (out.ordinal() << 2));
+    }
+
+    public void setLinkOut(int index, Direction out) {
+        links[index] = (byte) ((links[index] & 0x3) | (out.ordinal() << 2));
+    }
+
+    // Dirección con la que la serpiente entró en la casilla (el vecino hacia la cola está detrás)
+    public Direction linkIn(int index) {
+        return Direction.fromOrdinal(links[index] & 0x3);
+    }
+
+    // Dirección con la que salió de la casilla (hacia el vecino del lado de la cabeza)
+    public Direction linkOut(int index) {
+        return Direction.fromOrdinal((links[index] >> 2) & 0x3);
+    }
+
+    // Copia el contenido y la forma de cada casilla (para instantáneas del render)
+    public void copyCells(byte[] cellsOut, byte[] linksOut) {
+        System.arraycopy(cells, 0, cellsOut, 0, cells.length);
+        System.arraycopy(links, 0, linksOut, 0, links.length);
+    }
+
+    // Copia una sola casilla (puesta al día incremental de las instantáneas)
+    public void copyCell(int index, byte[] cellsOut, byte[] linksOut) {
+        cellsOut[index] = cells[index];
+        linksOut[index] = links[index];
+    }
+
+    public int freeCount() {
+        return freeCount;
+    }
+
+    // Índice de una casilla libre uniforme, o -1 si el tablero está lleno
+    public int randomFree(GameRandom random) {
+        if (freeCount == 0) return -1;
+        return free[random.nextInt(freeCount)];
+    }
+}
@@ -0,0 +1,22 @@
+package es.nellagames.viperx.engine;
+
+// Operaciones de las preguntas, con el símbolo con que se muestran
+public enum Operator {
+    ADD("+"), SUBTRACT("-"), MULTIPLY("×"), DIVIDE("÷");
+
+    public final String symbol;
+
+    Operator(String symbol) {
+        this.symbol = symbol;
+    }
+
+    // DIVIDE solo se usa con divisiones exactas (ver TieredQuizGenerator)
+    public int apply(int a, int b) {
+        switch (this) {
+            case ADD: return a + b;
+            case SUBTRACT: return a - b;
+            case MULTIPLY: return a * b;
+            default: return a / b;
+        }
+    }
+}
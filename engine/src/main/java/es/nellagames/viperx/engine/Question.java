@@ -0,0 +1,34 @@
+package es.nellagames.viperx.engine;
+
+// Pregunta resuelta y con todos sus textos ya formateados. Se crean al preparar los pools de
+// preguntas y se comparten entre partidas e instantáneas: son inmutables.
+public final class Question {
+
+    public static final int MAX_DISTRACTORS = 8;
+
+    public final int a, b;
+    public final Operator operator;
+    public final int answer;
+    // "Q: 3 + 4 = ?"
+    public final String text;
+    public final String answerLabel;
+    // Respuestas incorrectas posibles, distintas entre sí y de answer, con sus etiquetas
+    private final int[] distractors;
+    private final String[] distractorLabels;
+
+    Question(int a, int b, Operator operator, String text, String answerLabel,
+             int[] distractors, String[] distractorLabels) {
+        this.a = a;
+        this.b = b;
+        this.operator = operator;
+        this.answer = operator.apply(a, b);
+        this.text = text;
+        this.answerLabel = answerLabel;
+        this.distractors = distractors;
+        this.distractorLabels = distractorLabels;
+    }
+
+    public int getDistractorCount() { return distractors.length; }
+    public int getDistractor(int i) { return distractors[i]; }
+    public String getDistractorLabel(int i) { return distractorLabels[i]; }
+}
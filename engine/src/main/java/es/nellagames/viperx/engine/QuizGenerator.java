@@ -0,0 +1,8 @@
+package es.nellagames.viperx.engine;
+
+// Origen de las preguntas de una partida. next() se llama en el hilo del motor cada vez que se
+// come una respuesta: debe ser O(1) y no crear objetos (las preguntas se preparan de antemano).
+// La pregunta debe tener al menos GameEngine.WRONG_FOOD_COUNT respuestas incorrectas.
+public interface QuizGenerator {
+    Question next(int score, GameRandom random);
+}
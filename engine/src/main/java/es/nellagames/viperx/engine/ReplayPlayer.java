@@ -0,0 +1,144 @@
+package es.nellagames.viperx.engine;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+
+// Reproduce sin interfaz una grabación de ReplayRecorder, tan rápido como da el motor, y comprueba
+// cada punto de control. Sirve para reproducir partidas de informes de error y perfilarlas.
+//   java -cp engine.jar es.nellagames.viperx.engine.ReplayPlayer partida.vxr [...]
+//   ./gradlew :engine:replay -Preplay=partida.vxr
+public final class ReplayPlayer {
+
+    public static final class Result {
+        public final int width, height;
+        public final long seed;
+        public final long ticks;
+        public final int score, length, checkpoints;
+        public final boolean gameOver;
+
+        Result(int width, int height, long seed, long ticks, int score, int length, int checkpoints, boolean gameOver) {
+            this.width = width;
+            this.height = height;
+            this.seed = seed;
+            this.ticks = ticks;
+            this.score = score;
+            this.length = length;
+            this.checkpoints = checkpoints;
+            this.gameOver = gameOver;
+        }
+    }
+
+    private final byte[] data;
+    private int position;
+
+    private ReplayPlayer(byte[] data) {
+        this.data = data;
+    }
+
+    // Lanza IllegalArgumentException si los datos no son una grabación válida e
+    // IllegalStateException si la partida reproducida se separa de la grabada
+    public static Result play(byte[] data) {
+        return new ReplayPlayer(data).run();
+    }
+
+    private Result run() {
+        for (byte b : ReplayRecorder.MAGIC) {
+            if (readByte() != b) throw new IllegalArgumentException("Not a replay");
+        }
+        int version = readByte();
+        if (version != ReplayRecorder.VERSION) throw new IllegalArgumentException("Unsupported replay version " + version);
+        int width = (int) readVarint();
+        int height = (int) readVarint();
+        long seed = 0;
+        for (int i = 0; i < 8; i++) seed = (seed << 8) | (readByte() & 0xFF);
+
+        GameEngine engine = new GameEngine(width, height, new GameRandom(seed));
+        long tick = 0, recordTick = 0;
+        int checkpoints = 0;
+        while (true) {
+            long record = readVarint();
+            int type = (int) (record & ((1 << ReplayRecorder.TYPE_BITS) - 1));
+            recordTick += record >>> ReplayRecorder.TYPE_BITS;
+            if (type < Direction.values().length) {
+                // El giro se aplica en el propio tick del registro
+                tick = advance(engine, tick, recordTick - 1);
+                engine.tick(Direction.fromOrdinal(type));
+                tick++;
+                continue;
+            }
+            tick = advance(engine, tick, recordTick);
+            int score = (int) ReplayRecorder.unZigZag(readVarint());
+            int length = (int) readVarint();
+            check(engine, tick, score, length);
+            if (type == ReplayRecorder.TYPE_CHECKPOINT) {
+                checkpoints++;
+            } else if (type == ReplayRecorder.TYPE_END) {
+                boolean gameOver = readByte() != 0;
+                if (gameOver != engine.isGameOver()) {
+                    throw new IllegalStateException("Tick " + tick + ": expected gameOver " + gameOver);
+                }
+                return new Result(width, height, seed, tick, score, length, checkpoints, gameOver);
+            } else {
+                throw new IllegalArgumentException("Unknown record type " + type + " at byte " + position);
+            }
+        }
+    }
+
+    // Ticks sin giro hasta llegar a target
+    private static long advance(GameEngine engine, long tick, long target) {
+        while (tick < target) {
+            if (engine.isGameOver()) throw new IllegalStateException("Game over at tick " + tick + ", replay continues");
+            engine.tick(null);
+            tick++;
+        }
+        return tick;
+    }
+
+    private static void check(GameEngine engine, long tick, int score, int length) {
+        if (engine.getScore() != score || engine.getSnake().size() != length) {
+            throw new IllegalStateException("Tick " + tick + ": expected score " + score + " length " + length
+                    + ", got score " + engine.getScore() + " length " + engine.getSnake().size());
+        }
+    }
+
+    private long readVarint() {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            int b = readByte();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) return value;
+        }
+        throw new IllegalArgumentException("Malformed varint at byte " + position);
+    }
+
+    private int readByte() {
+        if (position >= data.length) throw new IllegalArgumentException("Truncated replay");
+        return data[position++];
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length == 0) {
+            System.err.println("Usage: ReplayPlayer <replay.vxr>...");
+            System.exit(2);
+        }
+        boolean failed = false;
+        for (String path : args) {
+            byte[] data = Files.readAllBytes(Paths.get(path));
+            long start = System.nanoTime();
+            try {
+                Result result = play(data);
+                double millis = (System.nanoTime() - start) / 1e6;
+                System.out.printf("%s: %dx%d seed %d, %d ticks, score %d, length %d%s, %d checkpoints OK "
+                                + "(%d bytes, %.2f ms, %.0f ticks/s)%n",
+                        path, result.width, result.height, result.seed, result.ticks, result.score, result.length,
+                        result.gameOver ? ", game over" : "", result.checkpoints, data.length, millis,
+                        result.ticks / Math.max(millis / 1000.0, 1e-9));
+            } catch (IllegalArgumentException | IllegalStateException e) {
+                System.out.println(path + ": FAILED " + e.getMessage());
+                failed = true;
+            }
+        }
+        if (failed) System.exit(1);
+    }
+}
@@ -0,0 +1,98 @@
+package es.nellagames.viperx.engine;
+
+import java.util.Arrays;
+
+// Grabación compacta de una partida para reproducirla con ReplayPlayer.
+// Formato: "VXR" + versión, ancho y alto (varint), semilla de la partida (8 bytes) y registros.
+// Cada registro es varint((ticks desde el registro anterior << 3) | tipo):
+// - tipo 0..3: giro (ordinal de Direction) aplicado en ese tick;
+// - CHECKPOINT: puntuación (zigzag) y longitud tras ese tick, cada CHECKPOINT_INTERVAL ticks;
+// - END: puntuación, longitud y game over (0/1) al terminar.
+// Solo se cuentan los ticks en que el motor avanzó. Una partida típica ocupa unos cientos de bytes.
+public final class ReplayRecorder {
+
+    static final byte[] MAGIC = {'V', 'X', 'R'};
+    // 2: preguntas de TieredQuizGenerator (otro uso del generador que en la 1)
+    static final int VERSION = 2;
+    static final int TYPE_CHECKPOINT = 4, TYPE_END = 5;
+    static final int TYPE_BITS = 3;
+    public static final int CHECKPOINT_INTERVAL = 64;
+
+    private byte[] buffer = new byte[256];
+    private int size;
+    private boolean recording;
+    private long tick, lastRecordTick;
+
+    public void begin(int width, int height, long seed) {
+        size = 0;
+        tick = 0;
+        lastRecordTick = 0;
+        recording = true;
+        for (byte b : MAGIC) writeByte(b);
+        writeByte(VERSION);
+        writeVarint(width);
+        writeVarint(height);
+        for (int shift = 56; shift >= 0; shift -= 8) writeByte((int) (seed >>> shift));
+    }
+
+    public boolean isRecording() {
+        return recording;
+    }
+
+    // Tras cada tick del motor, con el giro que se le pasó (o null) y el estado resultante
+    public void recordTick(Direction turn, int score, int length) {
+        if (!recording) return;
+        tick++;
+        if (turn != null) writeRecord(turn.ordinal());
+        if (tick % CHECKPOINT_INTERVAL == 0) {
+            writeRecord(TYPE_CHECKPOINT);
+            writeVarint(zigZag(score));
+            writeVarint(length);
+        }
+    }
+
+    // Cierra la grabación y devuelve una copia de sus bytes
+    public byte[] finish(int score, int length, boolean gameOver) {
+        if (!recording) throw new IllegalStateException("Not recording");
+        writeRecord(TYPE_END);
+        writeVarint(zigZag(score));
+        writeVarint(length);
+        writeByte(gameOver ? 1 : 0);
+        recording = false;
+        return Arrays.copyOf(buffer, size);
+    }
+
+    public long getTicks() {
+        return tick;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    private void writeRecord(int type) {
+        writeVarint(((tick - lastRecordTick) << TYPE_BITS) | type);
+        lastRecordTick = tick;
+    }
+
+    private void writeVarint(long value) {
+        while ((value & ~0x7FL) != 0) {
+            writeByte((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        writeByte((int) value);
+    }
+
+    private void writeByte(int value) {
+        if (size == buffer.length) buffer = Arrays.copyOf(buffer, size * 2);
+        buffer[size++] = (byte) value;
+    }
+
+    static long zigZag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    static long unZigZag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+}
@@ -0,0 +1,117 @@
+package es.nellagames.viperx.engine;
+
+// Cuerpo de la serpiente como buffer circular de celdas empaquetadas en un int.
+// Añadir cabeza, quitar cola y encoger k segmentos son O(1) y no crean objetos
+// (salvo al duplicar la capacidad); el índice 0 es siempre la cabeza.
+public final class SnakeBody {
+
+    private static final int DEFAULT_CAPACITY = 16;
+
+    private int[] cells;
+    private int head;  // posición física de la cabeza en cells
+    private int size;
+    private int mask;  // capacidad - 1 (potencia de dos)
+
+    public SnakeBody() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public SnakeBody(int initialCapacity) {
+        int capacity = Integer.highestOneBit(Math.max(DEFAULT_CAPACITY, initialCapacity) - 1) << 1;
+        cells = new int[capacity];
+        mask = capacity - 1;
+    }
+
+    // Empaquetado: 16 bits por coordenada, tableros de hasta 65535 x 65535
+    public static int pack(int x, int y) {
+        return (y << 16) | x;
+    }
+
+    public static int unpackX(int cell) {
+        return cell & 0xFFFF;
+    }
+
+    public static int unpackY(int cell) {
+        return cell >>> 16;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public void clear() {
+        head = 0;
+        size = 0;
+    }
+
+    // Celda empaquetada del segmento i (0 = cabeza, size - 1 = cola)
+    public int get(int i) {
+        if (i < 0 || i >= size) throw new IndexOutOfBoundsException("Segment " + i + " of " + size);
+        return cells[(head + i) & mask];
+    }
+
+    public int x(int i) {
+        return unpackX(get(i));
+    }
+
+    public int y(int i) {
+        return unpackY(get(i));
+    }
+
+    public int head() {
+        return get(0);
+    }
+
+    public int tail() {
+        return get(size - 1);
+    }
+
+    public void pushHead(int cell) {
+        if (size == cells.length) grow();
+        head = (head - 1) & mask;
+        cells[head] = cell;
+        size++;
+    }
+
+    // Añade por la cola (construcción inicial de la serpiente)
+    public void pushTail(int cell) {
+        if (size == cells.length) grow();
+        cells[(head + size) & mask] = cell;
+        size++;
+    }
+
+    public int popTail() {
+        if (size == 0) throw new IllegalStateException("Empty snake");
+        size--;
+        return cells[(head + size) & mask];
+    }
+
+    // Quita hasta k segmentos de la cola sin bajar de minSize
+    public int shrink(int k, int minSize) {
+        int removed = Math.max(0, Math.min(k, size - minSize));
+        size -= removed;
+        return removed;
+    }
+
+    // Búsqueda lineal O(size)
+    public boolean contains(int cell) {
+        for (int i = 0; i < size; i++) {
+            if (cells[(head + i) & mask] == cell) return true;
+        }
+        return false;
+    }
+
+    private void grow() {
+        int[] bigger = new int[cells.length << 1];
+        for (int i = 0; i < size; i++) {
+            bigger[i] = cells[(head + i) & mask];
+        }
+        cells = bigger;
+        mask = bigger.length - 1;
+        head = 0;
+    }
+}
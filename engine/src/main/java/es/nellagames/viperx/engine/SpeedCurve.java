@@ -0,0 +1,31 @@
+package es.nellagames.viperx.engine;
+
+// Velocidad de la simulación según la puntuación: baseRate ticks por segundo al empezar, que
+// suben ratePerPoint por cada punto hasta maxRate. Inmutable.
+public final class SpeedCurve {
+
+    // 5 ticks/s (200 ms, la velocidad de siempre) hasta 12 ticks/s con 70 puntos
+    public static final SpeedCurve DEFAULT = new SpeedCurve(5f, 0.1f, 12f);
+    // Para speed runs: arranca rápido y llega a 30 ticks/s
+    public static final SpeedCurve SPEED_RUN = new SpeedCurve(8f, 0.25f, 30f);
+
+    public final float baseRate, ratePerPoint, maxRate;
+
+    public SpeedCurve(float baseRate, float ratePerPoint, float maxRate) {
+        if (baseRate <= 0 || ratePerPoint < 0 || maxRate < baseRate) {
+            throw new IllegalArgumentException("Invalid speed curve " + baseRate + " +" + ratePerPoint + " max " + maxRate);
+        }
+        this.baseRate = baseRate;
+        this.ratePerPoint = ratePerPoint;
+        this.maxRate = maxRate;
+    }
+
+    // Las respuestas incorrectas no restan, pero una puntuación negativa no frena por debajo de base
+    public float ticksPerSecond(int score) {
+        return Math.min(maxRate, baseRate + ratePerPoint * Math.max(0, score));
+    }
+
+    public long tickNanos(int score) {
+        return Math.round(1_000_000_000.0 / ticksPerSecond(score));
+    }
+}
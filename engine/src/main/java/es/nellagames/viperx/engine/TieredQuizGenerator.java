@@ -0,0 +1,134 @@
+package es.nellagames.viperx.engine;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Preguntas por niveles de dificultad según la puntuación. Cada nivel enumera al construirse todas
+// sus combinaciones de operador y operandos (con textos y respuestas incorrectas), así que sacar
+// una pregunta es elegir un índice al azar en el pool del nivel.
+public final class TieredQuizGenerator implements QuizGenerator {
+
+    // Nivel: desde minScore, todas las combinaciones de los operadores añadidos
+    public static final class Tier {
+        final int minScore;
+        final List<Operator> operators = new ArrayList<>();
+        final List<int[]> ranges = new ArrayList<>();
+
+        public Tier(int minScore) {
+            this.minScore = minScore;
+        }
+
+        // Operandos en [min, max]. Para DIVIDE son el divisor y el cociente: la división es exacta.
+        public Tier add(Operator operator, int min, int max) {
+            if (min > max) throw new IllegalArgumentException("Empty range " + min + ".." + max);
+            if (operator == Operator.DIVIDE && min <= 0) throw new IllegalArgumentException("Divisor must be positive");
+            operators.add(operator);
+            ranges.add(new int[]{min, max});
+            return this;
+        }
+    }
+
+    // Hasta 10 puntos, las de siempre: sumas y restas de una cifra
+    private static final class Standard {
+        static final TieredQuizGenerator INSTANCE = new TieredQuizGenerator(
+                new Tier(0).add(Operator.ADD, 1, 9).add(Operator.SUBTRACT, 1, 9),
+                new Tier(10).add(Operator.ADD, 2, 20).add(Operator.SUBTRACT, 2, 20).add(Operator.MULTIPLY, 2, 5),
+                new Tier(25).add(Operator.ADD, 5, 25).add(Operator.SUBTRACT, 5, 25)
+                        .add(Operator.MULTIPLY, 2, 9).add(Operator.DIVIDE, 2, 9),
+                new Tier(50).add(Operator.SUBTRACT, 10, 40).add(Operator.MULTIPLY, 2, 12).add(Operator.DIVIDE, 2, 12));
+    }
+
+    private final int[] minScores;
+    private final Question[][] pools;
+
+    // Niveles en orden creciente de minScore, el primero desde 0
+    public TieredQuizGenerator(Tier... tiers) {
+        if (tiers.length == 0 || tiers[0].minScore > 0) throw new IllegalArgumentException("First tier must start at 0");
+        minScores = new int[tiers.length];
+        pools = new Question[tiers.length][];
+        // Las etiquetas de números se comparten entre preguntas
+        Map<Integer, String> labels = new HashMap<>();
+        for (int t = 0; t < tiers.length; t++) {
+            Tier tier = tiers[t];
+            if (t > 0 && tier.minScore <= minScores[t - 1]) throw new IllegalArgumentException("Tiers out of order");
+            minScores[t] = tier.minScore;
+            List<Question> pool = new ArrayList<>();
+            for (int i = 0; i < tier.operators.size(); i++) {
+                Operator operator = tier.operators.get(i);
+                int[] range = tier.ranges.get(i);
+                for (int x = range[0]; x <= range[1]; x++) {
+                    for (int y = range[0]; y <= range[1]; y++) {
+                        // x ÷ y se plantea como (x * y) ÷ y
+                        pool.add(operator == Operator.DIVIDE
+                                ? create(x * y, y, operator, labels)
+                                : create(x, y, operator, labels));
+                    }
+                }
+            }
+            pools[t] = pool.toArray(new Question[0]);
+        }
+    }
+
+    // Compartido por todas las partidas; se prepara la primera vez que se pide
+    public static TieredQuizGenerator standard() {
+        return Standard.INSTANCE;
+    }
+
+    @Override
+    public Question next(int score, GameRandom random) {
+        Question[] pool = pools[tierFor(score)];
+        return pool[random.nextInt(pool.length)];
+    }
+
+    public int tierFor(int score) {
+        int tier = 0;
+        while (tier + 1 < minScores.length && score >= minScores[tier + 1]) tier++;
+        return tier;
+    }
+
+    public int getTierCount() { return pools.length; }
+    public int getPoolSize(int tier) { return pools[tier].length; }
+    public Question getQuestion(int tier, int index) { return pools[tier][index]; }
+
+    private static Question create(int a, int b, Operator operator, Map<Integer, String> labels) {
+        int answer = operator.apply(a, b);
+        // Incorrectas cercanas a la correcta; en los productos, también las de la fila vecina
+        // de la tabla, que son el error habitual
+        int[] candidates = new int[Question.MAX_DISTRACTORS];
+        int count = 0;
+        if (operator == Operator.MULTIPLY) {
+            count = addDistractor(candidates, count, answer, a * (b + 1));
+            count = addDistractor(candidates, count, answer, a * (b - 1));
+        }
+        for (int offset = 1; count < 4; offset++) {
+            count = addDistractor(candidates, count, answer, answer + offset);
+            if (count < 4) count = addDistractor(candidates, count, answer, answer - offset);
+        }
+        int[] distractors = new int[count];
+        String[] distractorLabels = new String[count];
+        for (int i = 0; i < count; i++) {
+            distractors[i] = candidates[i];
+            distractorLabels[i] = label(candidates[i], labels);
+        }
+        String text = "Q: " + a + " " + operator.symbol + " " + b + " = ?";
+        return new Question(a, b, operator, text, label(answer, labels), distractors, distractorLabels);
+    }
+
+    private static int addDistractor(int[] candidates, int count, int answer, int value) {
+        if (value == answer) return count;
+        for (int i = 0; i < count; i++) if (candidates[i] == value) return count;
+        candidates[count] = value;
+        return count + 1;
+    }
+
+    private static String label(int value, Map<Integer, String> labels) {
+        String label = labels.get(value);
+        if (label == null) {
+            label = String.valueOf(value);
+            labels.put(value, label);
+        }
+        return label;
+    }
+}
@@ -0,0 +1,42 @@
+package es.nellagames.viperx.engine;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Triple buffer sin locks entre un productor y un consumidor. El productor escribe en back()
+// y lo publica con un intercambio atómico; el consumidor toma siempre el último publicado.
+// Ninguno espera al otro: si el consumidor va lento, los estados intermedios se saltan.
+public final class TripleBuffer<T> {
+
+    private static final int INDEX_MASK = 0x3;
+    // Marca en el índice del buffer intermedio: hay un estado publicado que el consumidor no ha visto
+    private static final int FRESH = 0x4;
+
+    private final Object[] buffers;
+    private int back = 0;   // solo productor
+    private int front = 1;  // solo consumidor
+    private final AtomicInteger middle = new AtomicInteger(2);
+
+    public TripleBuffer(T first, T second, T third) {
+        buffers = new Object[]{first, second, third};
+    }
+
+    // Productor: buffer en el que escribir el siguiente estado
+    @SuppressWarnings("unchecked")
+    public T back() {
+        return (T) buffers[back];
+    }
+
+    // Productor: publica back() y recibe a cambio el buffer intermedio para seguir escribiendo
+    public void publish() {
+        back = middle.getAndSet(back | FRESH) & INDEX_MASK;
+    }
+
+    // Consumidor: último estado publicado (o el mismo de la vez anterior si no hay nada nuevo)
+    @SuppressWarnings("unchecked")
+    public T latest() {
+        if ((middle.get() & FRESH) != 0) {
+            front = middle.getAndSet(front) & INDEX_MASK;
+        }
+        return (T) buffers[front];
+    }
+}
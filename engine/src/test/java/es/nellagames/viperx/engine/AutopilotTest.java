@@ -0,0 +1,63 @@
+package es.nellagames.viperx.engine;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class AutopilotTest {
+
+    private static int play(GameEngine engine, Autopilot autopilot, int maxTicks) {
+        int ticks = 0;
+        while (!engine.isGameOver() && ticks < maxTicks) {
+            engine.tick(autopilot.nextTurn(engine));
+            ticks++;
+        }
+        return ticks;
+    }
+
+    @Test
+    public void autopilot_eatsCorrectFoodOnDefaultBoard() {
+        Autopilot autopilot = new Autopilot();
+        int total = 0;
+        for (int seed = 0; seed < 10; seed++) {
+            GameEngine engine = new GameEngine(10, 10, new GameRandom(seed));
+            play(engine, autopilot, 5_000);
+            total += engine.getScore();
+        }
+        // Una serpiente al azar apenas suma; el piloto llena buena parte del tablero
+        assertTrue("average score " + total / 10, total / 10 >= 20);
+    }
+
+    @Test
+    public void autopilot_survivesOnLargeBoard() {
+        Autopilot autopilot = new Autopilot();
+        GameEngine engine = new GameEngine(64, 64, new GameRandom(5));
+        int ticks = play(engine, autopilot, 3_000);
+        assertEquals(3_000, ticks);
+        assertFalse(engine.isGameOver());
+        assertTrue(engine.getScore() > 30);
+    }
+
+    @Test
+    public void autopilot_reachesFoodAcrossHugeBoard() {
+        Autopilot autopilot = new Autopilot();
+        GameEngine engine = new GameEngine(1000, 1000, new GameRandom(3));
+        int ticks = 0;
+        while (engine.getScore() < 3 && ticks < 10_000) {
+            engine.tick(autopilot.nextTurn(engine));
+            ticks++;
+        }
+        assertFalse(engine.isGameOver());
+        assertEquals(3, engine.getScore());
+    }
+
+    @Test
+    public void autopilot_reusedAcrossBoardSizes() {
+        Autopilot autopilot = new Autopilot();
+        GameEngine small = new GameEngine(8, 6, new GameRandom(1));
+        play(small, autopilot, 200);
+        GameEngine large = new GameEngine(30, 20, new GameRandom(1));
+        play(large, autopilot, 200);
+        assertTrue(large.getScore() > 0);
+    }
+}
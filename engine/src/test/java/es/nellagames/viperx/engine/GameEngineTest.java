@@ -0,0 +1,135 @@
+package es.nellagames.viperx.engine;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class GameEngineTest {
+
+    @Test
+    public void restart_placesSnakeAndFoods() {
+        GameEngine engine = new GameEngine(10, 10, new GameRandom(1));
+        assertEquals(GameEngine.INITIAL_LENGTH, engine.getSnake().size());
+        assertEquals(SnakeBody.pack(4, 5), engine.getSnake().head());
+        assertEquals(Direction.RIGHT, engine.getDirection());
+        assertNotNull(engine.getCorrectFood());
+        assertEquals(2, engine.getWrongFoods().size());
+        Cell food = engine.getCorrectFood().position;
+        assertFalse(engine.getSnake().contains(SnakeBody.pack(food.x, food.y)));
+    }
+
+    @Test
+    public void tick_ignoresOppositeTurn() {
+        GameEngine engine = new GameEngine(10, 10, new GameRandom(2));
+        engine.tick(Direction.LEFT);
+        assertEquals(Direction.RIGHT, engine.getDirection());
+        engine.tick(Direction.UP);
+        assertEquals(Direction.UP, engine.getDirection());
+    }
+
+    @Test
+    public void tick_hittingWallEndsGame() {
+        GameEngine engine = new GameEngine(10, 10, new GameRandom(3));
+        final int[] finalScore = {-1};
+        engine.setListener(new GameEngine.Listener() {
+            @Override public void onCorrectFood(int score) {}
+            @Override public void onWrongFood(int score) {}
+            @Override public void onBonusFood(int score) {}
+            @Override public void onGameOver(int score) { finalScore[0] = score; }
+        });
+        for (int i = 0; i < 20 && !engine.isGameOver(); i++) {
+            engine.tick(null);
+        }
+        assertTrue(engine.isGameOver());
+        assertEquals(engine.getScore(), finalScore[0]);
+    }
+
+    @Test
+    public void tick_eatingCorrectFoodScoresAndGrows() {
+        // Buscar una semilla que deje la comida en línea recta delante de la cabeza
+        for (long seed = 0; seed < 200; seed++) {
+            GameEngine engine = new GameEngine(10, 10, new GameRandom(seed));
+            Cell food = engine.getCorrectFood().position;
+            Cell head = new Cell(engine.getSnake().x(0), engine.getSnake().y(0));
+            if (food.y != head.y || food.x <= head.x) continue;
+            boolean blocked = false;
+            for (FoodItem wrong : engine.getWrongFoods()) {
+                if (wrong.position.y == head.y && wrong.position.x > head.x && wrong.position.x < food.x) blocked = true;
+            }
+            FoodItem bonus = engine.getBonusFood();
+            if (bonus != null && bonus.position.y == head.y && bonus.position.x > head.x && bonus.position.x < food.x) blocked = true;
+            if (blocked) continue;
+
+            for (int x = head.x; x < food.x; x++) engine.tick(null);
+            assertEquals(1, engine.getScore());
+            assertEquals(GameEngine.INITIAL_LENGTH + 1, engine.getSnake().size());
+            return;
+        }
+        fail("No seed placed the food in front of the snake");
+    }
+
+    @Test
+    public void tick_eatingWrongFoodShrinksAndFreesCells() {
+        // Buscar una semilla con una respuesta incorrecta en línea recta y nada antes
+        for (long seed = 0; seed < 500; seed++) {
+            GameEngine engine = new GameEngine(10, 10, new GameRandom(seed));
+            int headX = engine.getSnake().x(0), headY = engine.getSnake().y(0);
+            OccupancyGrid grid = engine.getGrid();
+            int wrongX = -1;
+            for (int x = headX + 1; x < engine.getWidth() && wrongX < 0; x++) {
+                byte kind = grid.get(x, headY);
+                if (kind == OccupancyGrid.EMPTY) continue;
+                if (kind > OccupancyGrid.FOOD_BASE && kind <= OccupancyGrid.FOOD_BASE + GameEngine.WRONG_FOOD_COUNT) {
+                    wrongX = x;
+                } else {
+                    break;
+                }
+            }
+            if (wrongX < 0) continue;
+
+            for (int x = headX; x < wrongX - 1; x++) engine.tick(null);
+            int size = engine.getSnake().size();
+            int freedA = grid.indexOf(engine.getSnake().get(size - 1));
+            int freedB = grid.indexOf(engine.getSnake().get(size - 2));
+            engine.tick(null);
+            // Entra una cabeza y salen WRONG_FOOD_PENALTY segmentos de la cola
+            assertEquals(size + 1 - GameEngine.WRONG_FOOD_PENALTY, engine.getSnake().size());
+            assertNotEquals(OccupancyGrid.SNAKE, grid.get(freedA));
+            assertNotEquals(OccupancyGrid.SNAKE, grid.get(freedB));
+            int snakeCells = 0;
+            for (int i = 0; i < engine.getWidth() * engine.getHeight(); i++) {
+                if (grid.get(i) == OccupancyGrid.SNAKE) snakeCells++;
+            }
+            assertEquals(engine.getSnake().size(), snakeCells);
+            return;
+        }
+        fail("No seed placed a wrong answer in front of the snake");
+    }
+
+    @Test
+    public void tick_reportsChangedCells() {
+        GameEngine engine = new GameEngine(20, 20, new GameRandom(4));
+        DirtyCells dirty = engine.getDirtyCells();
+        assertTrue(dirty.isAll());
+        dirty.clear();
+
+        OccupancyGrid grid = engine.getGrid();
+        int oldHead = grid.indexOf(engine.getSnake().head());
+        int oldTail = grid.indexOf(engine.getSnake().tail());
+        engine.tick(Direction.DOWN);
+        // Con esta semilla no hay comida debajo de la cabeza: es un movimiento normal
+        assertEquals(GameEngine.INITIAL_LENGTH, engine.getSnake().size());
+        assertFalse(dirty.isAll());
+        assertTrue(containsIndex(dirty, oldHead));
+        assertTrue(containsIndex(dirty, grid.indexOf(engine.getSnake().head())));
+        assertTrue(containsIndex(dirty, oldTail));
+        assertTrue(containsIndex(dirty, grid.indexOf(engine.getSnake().tail())));
+    }
+
+    private static boolean containsIndex(DirtyCells dirty, int index) {
+        for (int i = 0; i < dirty.size(); i++) {
+            if (dirty.get(i) == index) return true;
+        }
+        return false;
+    }
+}
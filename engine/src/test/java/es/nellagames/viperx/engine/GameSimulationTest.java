@@ -0,0 +1,138 @@
+package es.nellagames.viperx.engine;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class GameSimulationTest {
+
+    @Test
+    public void tripleBuffer_consumerSeesLatestPublished() {
+        TripleBuffer<int[]> buffer = new TripleBuffer<>(new int[1], new int[1], new int[1]);
+        buffer.back()[0] = 1;
+        buffer.publish();
+        buffer.back()[0] = 2;
+        buffer.publish();
+        assertEquals(2, buffer.latest()[0]);
+        // Sin publicaciones nuevas se repite el mismo
+        assertEquals(2, buffer.latest()[0]);
+        buffer.back()[0] = 3;
+        buffer.publish();
+        assertEquals(3, buffer.latest()[0]);
+    }
+
+    @Test
+    public void requestBoardSize_rejectsUnsupportedSizesOnCallerThread() {
+        GameSimulation simulation = new GameSimulation(new GameRandom(5), 10, 10);
+        int[][] invalid = {
+                {GameEngine.MIN_BOARD_WIDTH - 1, 10},
+                {10, GameEngine.MIN_BOARD_HEIGHT - 1},
+                {GameEngine.MAX_BOARD_SIZE + 1, 10},
+                {10, 65536}
+        };
+        for (int[] size : invalid) {
+            try {
+                simulation.requestBoardSize(size[0], size[1]);
+                fail("Accepted " + size[0] + "x" + size[1]);
+            } catch (IllegalArgumentException expected) {
+                // El motor sigue con el tablero anterior
+            }
+        }
+        simulation.tick(1_000L);
+        assertEquals(10, simulation.getEngine().getWidth());
+
+        simulation.requestBoardSize(GameEngine.MIN_BOARD_WIDTH, GameEngine.MIN_BOARD_HEIGHT);
+        simulation.tick(2_000L);
+        assertEquals(GameEngine.MIN_BOARD_WIDTH, simulation.getEngine().getWidth());
+        assertEquals(GameEngine.MIN_BOARD_HEIGHT, simulation.getEngine().getHeight());
+    }
+
+    @Test
+    public void leavingAutopilot_resyncsInputWithSnakeDirection() {
+        GameSimulation simulation = new GameSimulation(new GameRandom(5), 20, 20);
+        simulation.setAutopilot(true);
+        long now = 0;
+        // Hasta que el piloto gire la serpiente fuera de la dirección inicial
+        while (simulation.getEngine().getDirection() == GameEngine.INITIAL_DIRECTION) {
+            simulation.tick(now += 1_000L);
+            assertFalse(simulation.getEngine().isGameOver());
+        }
+        assertFalse(simulation.offerTurn(Direction.LEFT, now));
+
+        simulation.setAutopilot(false);
+        // Hasta que el hilo de simulación aplique la salida no se encola nada
+        assertFalse(simulation.offerTurn(Direction.LEFT, now));
+        simulation.processCommands(now);
+
+        Direction current = simulation.getEngine().getDirection();
+        Direction turn = current.dx == 0 ? Direction.LEFT : Direction.UP;
+        if (turn.dx != 0 && simulation.getEngine().getSnake().x(0) == 0) turn = Direction.RIGHT;
+        if (turn.dy != 0 && simulation.getEngine().getSnake().y(0) == 0) turn = Direction.DOWN;
+        assertFalse(simulation.offerTurn(current, now));
+        assertTrue(simulation.offerTurn(turn, now));
+        simulation.tick(now + 1_000L);
+        assertEquals(turn, simulation.getEngine().getDirection());
+    }
+
+    @Test
+    public void tick_publishesSnapshotOfEngineState() {
+        GameSimulation simulation = new GameSimulation(new GameRandom(5), 10, 10);
+        GameSnapshot first = simulation.latestSnapshot();
+        assertTrue(first.getDirtyCells().isAll());
+        long serial = first.getSerial();
+
+        simulation.tick(1_000L);
+        GameSnapshot next = simulation.latestSnapshot();
+        GameEngine engine = simulation.getEngine();
+        assertEquals(serial + 1, next.getSerial());
+        assertEquals(serial, next.getPreviousSerial());
+        assertEquals(engine.getSnake().head(), next.getHead());
+        assertEquals(OccupancyGrid.SNAKE, next.get(next.indexOf(next.getHead())));
+        assertFalse(next.getDirtyCells().isAll());
+        assertEquals(1_000L, next.getTickTimeNanos());
+    }
+
+    @Test
+    public void restartIsAppliedAsMessageOnNextTick() {
+        GameSimulation simulation = new GameSimulation(new GameRandom(6), 10, 10);
+        for (int i = 0; i < 20; i++) simulation.tick(i);
+        assertTrue(simulation.isPublishedGameOver());
+        // En game over no se publica nada: el render puede quedarse en reposo
+        long idleSerial = simulation.getPublishedSerial();
+        simulation.tick(50L);
+        assertFalse(simulation.processCommands(60L));
+        assertEquals(idleSerial, simulation.getPublishedSerial());
+
+        simulation.requestRestart();
+        assertTrue(simulation.hasPendingCommands());
+        assertTrue(simulation.latestSnapshot().isGameOver());
+        assertTrue(simulation.processCommands(100L));
+        assertEquals(idleSerial + 1, simulation.getPublishedSerial());
+        assertFalse(simulation.latestSnapshot().isGameOver());
+        assertEquals(GameEngine.INITIAL_LENGTH, simulation.latestSnapshot().getLength());
+    }
+
+    @Test
+    public void snapshots_stayInSyncWithIncrementalCopies() {
+        GameSimulation simulation = new GameSimulation(new GameRandom(9), 16, 12);
+        Autopilot autopilot = new Autopilot();
+        for (int i = 0; i < 600; i++) {
+            GameEngine engine = simulation.getEngine();
+            if (engine.isGameOver()) simulation.requestRestart();
+            Direction turn = autopilot.nextTurn(engine);
+            if (turn != null) simulation.offerTurn(turn, i);
+            simulation.tick(i);
+            // El render no toma todas: los buffers se quedan varias publicaciones atrás
+            if (i % 3 == 0) continue;
+            GameSnapshot snapshot = simulation.latestSnapshot();
+            OccupancyGrid grid = simulation.getEngine().getGrid();
+            for (int cell = 0; cell < 16 * 12; cell++) {
+                assertEquals("tick " + i + " cell " + cell, grid.get(cell), snapshot.get(cell));
+                if (grid.get(cell) == OccupancyGrid.SNAKE) {
+                    assertEquals(grid.linkIn(cell), snapshot.linkIn(cell));
+                    assertEquals(grid.linkOut(cell), snapshot.linkOut(cell));
+                }
+            }
+        }
+    }
+}
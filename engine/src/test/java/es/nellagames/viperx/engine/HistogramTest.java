@@ -0,0 +1,34 @@
+package es.nellagames.viperx.engine;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class HistogramTest {
+
+    @Test
+    public void percentiles_useBucketUpperBounds() {
+        Histogram histogram = new Histogram(10, 100);
+        for (int v = 0; v < 100; v++) histogram.record(v);
+        assertEquals(100, histogram.getCount());
+        // El valor 49 está en la cubeta [40, 50)
+        assertEquals(50, histogram.percentile(50));
+        // Nunca por encima del máximo registrado
+        assertEquals(99, histogram.percentile(99));
+        assertEquals(99, histogram.getMax());
+        assertEquals(49.5, histogram.getMean(), 1e-9);
+    }
+
+    @Test
+    public void overflowAndMerge() {
+        Histogram a = new Histogram(1, 10);
+        Histogram b = new Histogram(1, 10);
+        a.record(3);
+        b.record(500);
+        a.merge(b);
+        assertEquals(2, a.getCount());
+        assertEquals(1, a.getOverflow());
+        assertEquals(500, a.percentile(99));
+        assertEquals(4, a.percentile(50));
+    }
+}
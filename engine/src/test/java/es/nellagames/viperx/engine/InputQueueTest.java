@@ -0,0 +1,63 @@
+package es.nellagames.viperx.engine;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class InputQueueTest {
+
+    @Test
+    public void keepsQuickDoubleTurnsInOrder() {
+        InputQueue queue = new InputQueue();
+        queue.reset(Direction.RIGHT);
+        assertTrue(queue.offer(Direction.UP, 10));
+        assertTrue(queue.offer(Direction.LEFT, 20));
+        assertEquals(Direction.UP, queue.poll());
+        assertEquals(10, queue.getLastTimestamp());
+        assertEquals(Direction.LEFT, queue.poll());
+        assertEquals(20, queue.getLastTimestamp());
+        assertNull(queue.poll());
+    }
+
+    @Test
+    public void dropsOppositeAndRepeatedTurns() {
+        InputQueue queue = new InputQueue();
+        queue.reset(Direction.RIGHT);
+        assertFalse(queue.offer(Direction.LEFT, 1));
+        assertFalse(queue.offer(Direction.RIGHT, 2));
+        assertTrue(queue.offer(Direction.DOWN, 3));
+        assertFalse(queue.offer(Direction.UP, 4));
+        assertEquals(1, queue.size());
+    }
+
+    @Test
+    public void rejectsWhenFull() {
+        InputQueue queue = new InputQueue(2);
+        queue.reset(Direction.RIGHT);
+        assertTrue(queue.offer(Direction.UP, 1));
+        assertTrue(queue.offer(Direction.LEFT, 2));
+        assertFalse(queue.offer(Direction.DOWN, 3));
+        queue.poll();
+        assertTrue(queue.offer(Direction.DOWN, 4));
+    }
+
+    @Test
+    public void resyncReplacesLastQueuedUnlessProducerResetSince() {
+        InputQueue queue = new InputQueue();
+        queue.reset(Direction.RIGHT);
+        assertTrue(queue.offer(Direction.DOWN, 1));
+        // El consumidor sabe que la serpiente va hacia arriba: lo encolado se descarta
+        queue.resync(Direction.UP, queue.getResetCount());
+        assertEquals(0, queue.size());
+        assertFalse(queue.offer(Direction.DOWN, 2));
+        assertTrue(queue.offer(Direction.LEFT, 3));
+        assertEquals(Direction.LEFT, queue.poll());
+
+        // Petición anterior a un reinicio: el reset del productor manda
+        int resets = queue.getResetCount();
+        queue.reset(Direction.RIGHT);
+        queue.resync(Direction.UP, resets);
+        assertFalse(queue.offer(Direction.LEFT, 4));
+        assertTrue(queue.offer(Direction.UP, 5));
+    }
+}
@@ -0,0 +1,38 @@
+package es.nellagames.viperx.engine;
+
+import org.junit.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.Assert.*;
+
+public class OccupancyGridTest {
+
+    @Test
+    public void set_tracksFreeCells() {
+        OccupancyGrid grid = new OccupancyGrid(4, 3);
+        assertEquals(12, grid.freeCount());
+        grid.set(grid.index(1, 2), OccupancyGrid.SNAKE);
+        grid.set(grid.index(3, 0), OccupancyGrid.FOOD_BASE);
+        assertEquals(10, grid.freeCount());
+        assertEquals(OccupancyGrid.SNAKE, grid.get(1, 2));
+        grid.set(grid.index(1, 2), OccupancyGrid.EMPTY);
+        assertEquals(11, grid.freeCount());
+    }
+
+    @Test
+    public void randomFree_onlyReturnsFreeCellsUntilFull() {
+        OccupancyGrid grid = new OccupancyGrid(5, 5);
+        GameRandom random = new GameRandom(7);
+        Set<Integer> taken = new HashSet<>();
+        for (int i = 0; i < 25; i++) {
+            int index = grid.randomFree(random);
+            assertEquals(OccupancyGrid.EMPTY, grid.get(index));
+            assertTrue(taken.add(index));
+            grid.set(index, OccupancyGrid.SNAKE);
+        }
+        assertEquals(0, grid.freeCount());
+        assertEquals(-1, grid.randomFree(random));
+    }
+}
@@ -0,0 +1,65 @@
+package es.nellagames.viperx.engine;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class QuizGeneratorTest {
+
+    @Test
+    public void standardPools_haveValidQuestions() {
+        TieredQuizGenerator quiz = TieredQuizGenerator.standard();
+        for (int tier = 0; tier < quiz.getTierCount(); tier++) {
+            assertTrue(quiz.getPoolSize(tier) > 0);
+            for (int i = 0; i < quiz.getPoolSize(tier); i++) {
+                Question q = quiz.getQuestion(tier, i);
+                if (q.operator == Operator.DIVIDE) assertEquals(0, q.a % q.b);
+                assertEquals("Q: " + q.a + " " + q.operator.symbol + " " + q.b + " = ?", q.text);
+                assertEquals(String.valueOf(q.answer), q.answerLabel);
+                assertTrue(q.getDistractorCount() >= GameEngine.WRONG_FOOD_COUNT);
+                for (int d = 0; d < q.getDistractorCount(); d++) {
+                    assertNotEquals(q.answer, q.getDistractor(d));
+                    assertEquals(String.valueOf(q.getDistractor(d)), q.getDistractorLabel(d));
+                    for (int e = d + 1; e < q.getDistractorCount(); e++) {
+                        assertNotEquals(q.getDistractor(d), q.getDistractor(e));
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    public void next_usesTierOfScore() {
+        TieredQuizGenerator quiz = new TieredQuizGenerator(
+                new TieredQuizGenerator.Tier(0).add(Operator.ADD, 1, 3),
+                new TieredQuizGenerator.Tier(5).add(Operator.MULTIPLY, 2, 4));
+        GameRandom random = new GameRandom(8);
+        assertEquals(9, quiz.getPoolSize(0));
+        for (int i = 0; i < 50; i++) {
+            assertEquals(Operator.ADD, quiz.next(4, random).operator);
+            assertEquals(Operator.MULTIPLY, quiz.next(5, random).operator);
+        }
+        assertEquals(1, quiz.tierFor(100));
+    }
+
+    @Test
+    public void engine_placesDistinctWrongAnswers() {
+        GameEngine engine = new GameEngine(10, 10, new GameRandom(6));
+        for (int game = 0; game < 50; game++) {
+            engine.restart();
+            Question question = engine.getQuestion();
+            assertEquals(question.answer, engine.getCorrectFood().value);
+            assertSame(question.answerLabel, engine.getCorrectFood().label);
+            assertEquals(2, engine.getWrongFoods().size());
+            int first = engine.getWrongFoods().get(0).value, second = engine.getWrongFoods().get(1).value;
+            assertNotEquals(first, second);
+            assertNotEquals(question.answer, first);
+            assertNotEquals(question.answer, second);
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void tiersMustStartAtZero() {
+        new TieredQuizGenerator(new TieredQuizGenerator.Tier(3).add(Operator.ADD, 1, 2));
+    }
+}
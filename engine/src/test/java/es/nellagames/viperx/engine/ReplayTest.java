@@ -0,0 +1,68 @@
+package es.nellagames.viperx.engine;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class ReplayTest {
+
+    @Test
+    public void gameRandom_sameSeedSameSequence() {
+        GameRandom a = new GameRandom(99);
+        GameRandom b = new GameRandom(99);
+        for (int i = 0; i < 100; i++) assertEquals(a.nextInt(1000), b.nextInt(1000));
+        GameRandom childA = a.split();
+        GameRandom childB = b.split();
+        assertEquals(childA.getSeed(), childB.getSeed());
+        assertEquals(childA.nextLong(), childB.nextLong());
+        // Acceso directo al split número 1 de la semilla
+        GameRandom root = new GameRandom(99);
+        root.split();
+        assertEquals(root.split().getSeed(), GameRandom.split(99, 1).getSeed());
+        for (int i = 0; i < 1000; i++) {
+            int value = a.nextInt(7);
+            assertTrue(value >= 0 && value < 7);
+        }
+    }
+
+    @Test
+    public void recordedGame_replaysToSameState() {
+        final List<byte[]> replays = new ArrayList<>();
+        GameSimulation simulation = new GameSimulation(new GameRandom(11), 12, 12);
+        simulation.setReplaySink(replays::add);
+        // Vueltas a un cuadrado de 5x5 casillas, girando cada 5 ticks
+        Direction[] turns = {Direction.DOWN, Direction.RIGHT, Direction.UP, Direction.LEFT};
+        long now = 0;
+        for (int i = 0; i < 300 && !simulation.isPublishedGameOver(); i++) {
+            if (i % 5 == 0) simulation.offerTurn(turns[(i / 5) % turns.length], now);
+            simulation.tick(now += 1_000L);
+        }
+        GameEngine engine = simulation.getEngine();
+        int score = engine.getScore();
+        int length = engine.getSnake().size();
+        boolean gameOver = engine.isGameOver();
+        // Si sigue viva, el reinicio cierra la grabación
+        simulation.requestRestart();
+        simulation.processCommands(now);
+        assertEquals(1, replays.size());
+
+        ReplayPlayer.Result result = ReplayPlayer.play(replays.get(0));
+        assertTrue(result.checkpoints > 0);
+        assertEquals(gameOver, result.gameOver);
+        assertEquals(score, result.score);
+        assertEquals(length, result.length);
+        assertEquals(12, result.width);
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void replay_detectsDivergence() {
+        ReplayRecorder recorder = new ReplayRecorder();
+        recorder.begin(10, 10, 1234L);
+        for (int i = 0; i < 3; i++) recorder.recordTick(null, 0, GameEngine.INITIAL_LENGTH);
+        // Longitud falsa al final
+        ReplayPlayer.play(recorder.finish(0, GameEngine.INITIAL_LENGTH + 3, false));
+    }
+}
@@ -0,0 +1,39 @@
+package es.nellagames.viperx.engine;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class SnakeBodyTest {
+
+    @Test
+    public void pack_roundTrips() {
+        int cell = SnakeBody.pack(1999, 65535);
+        assertEquals(1999, SnakeBody.unpackX(cell));
+        assertEquals(65535, SnakeBody.unpackY(cell));
+    }
+
+    @Test
+    public void pushHeadAndPopTail_keepOrderAcrossWrapAndGrowth() {
+        SnakeBody body = new SnakeBody(16);
+        for (int i = 0; i < 10; i++) body.pushHead(SnakeBody.pack(i, 0));
+        for (int i = 0; i < 5; i++) assertEquals(SnakeBody.pack(i, 0), body.popTail());
+        // Da la vuelta al buffer y obliga a crecer
+        for (int i = 10; i < 100; i++) body.pushHead(SnakeBody.pack(i, 0));
+        assertEquals(95, body.size());
+        for (int i = 0; i < body.size(); i++) {
+            assertEquals(99 - i, body.x(i));
+        }
+        assertEquals(SnakeBody.pack(5, 0), body.tail());
+    }
+
+    @Test
+    public void shrink_respectsMinimumSize() {
+        SnakeBody body = new SnakeBody();
+        for (int i = 0; i < 3; i++) body.pushTail(SnakeBody.pack(i, 1));
+        assertEquals(2, body.shrink(5, 1));
+        assertEquals(1, body.size());
+        assertEquals(0, body.shrink(2, 1));
+        assertEquals(SnakeBody.pack(0, 1), body.head());
+    }
+}
@@ -0,0 +1,32 @@
+package es.nellagames.viperx.engine;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class SpeedCurveTest {
+
+    @Test
+    public void tickNanos_rampsWithScoreUpToMax() {
+        SpeedCurve curve = new SpeedCurve(5f, 0.5f, 20f);
+        assertEquals(200_000_000L, curve.tickNanos(0));
+        assertEquals(200_000_000L, curve.tickNanos(-3));
+        assertEquals(100_000_000L, curve.tickNanos(10));
+        assertEquals(50_000_000L, curve.tickNanos(30));
+        assertEquals(50_000_000L, curve.tickNanos(1000));
+    }
+
+    @Test
+    public void defaultCurve_startsAtClassicSpeed() {
+        assertEquals(200_000_000L, SpeedCurve.DEFAULT.tickNanos(0));
+        GameSimulation simulation = new GameSimulation(new GameRandom(1));
+        assertEquals(200_000_000L, simulation.latestSnapshot().getTickIntervalNanos());
+        simulation.setSpeedCurve(SpeedCurve.SPEED_RUN);
+        assertEquals(SpeedCurve.SPEED_RUN.tickNanos(0), simulation.getTickNanos());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void maxBelowBase_isRejected() {
+        new SpeedCurve(10f, 0.1f, 5f);
+    }
+}
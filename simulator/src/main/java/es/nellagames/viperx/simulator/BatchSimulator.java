@@ -0,0 +1,127 @@
+package es.nellagames.viperx.simulator;
+
+import es.nellagames.viperx.engine.GameEngine;
+import es.nellagames.viperx.engine.GameRandom;
+import es.nellagames.viperx.engine.Histogram;
+
+import java.util.Locale;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.LongStream;
+
+// Ejecuta miles de partidas sin interfaz repartidas entre todos los núcleos, para medir el
+// equilibrio de las reglas (preguntas, penalización por respuesta mala, bonus) y el rendimiento
+// del motor. La partida número i usa GameRandom.split(seed, i): el resultado no depende del
+// número de hilos ni del orden en que se ejecuten.
+//   ./gradlew :simulator:run --args="--games 100000 --policy safe --board 20x20 --threads 8"
+public final class BatchSimulator {
+
+    public static final class Config {
+        public int games = 10_000;
+        public long seed = 1;
+        public String policy = "safe";
+        public int width = GameEngine.DEFAULT_BOARD_SIZE, height = GameEngine.DEFAULT_BOARD_SIZE;
+        public long maxTicks = 100_000;
+        public int threads = Runtime.getRuntime().availableProcessors();
+    }
+
+    private BatchSimulator() {}
+
+    public static BatchStats run(Config config) {
+        Policies.create(config.policy); // nombre inválido: fallar antes de arrancar los hilos
+        ForkJoinPool pool = new ForkJoinPool(config.threads);
+        try {
+            // El stream paralelo se ejecuta en el pool desde el que se lanza
+            return pool.submit(() -> LongStream.range(0, config.games).parallel()
+                    .collect(BatchStats::new, (stats, index) -> playGame(config, index, stats), BatchStats::merge))
+                    .get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Batch interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Batch failed", e.getCause());
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    // Una partida con su propio flujo aleatorio: uno para las reglas y otro para la entrada
+    static void playGame(Config config, long index, BatchStats stats) {
+        GameRandom session = GameRandom.split(config.seed, index);
+        GameRandom rules = session.split();
+        GameRandom input = session.split();
+        GameEngine engine = stats.engine;
+        if (engine == null) {
+            engine = new GameEngine(config.width, config.height, rules);
+            engine.setListener(stats);
+            stats.engine = engine;
+        } else {
+            engine.restart(rules);
+        }
+        InputPolicy policy = stats.policy;
+        if (policy == null) policy = stats.policy = Policies.create(config.policy);
+        long ticks = 0;
+        while (!engine.isGameOver() && ticks < config.maxTicks) {
+            engine.tick(policy.nextTurn(engine, input));
+            ticks++;
+        }
+        stats.record(engine, ticks);
+    }
+
+    public static void main(String[] args) {
+        Config config = new Config();
+        for (int i = 0; i < args.length; i++) {
+            String value = i + 1 < args.length ? args[i + 1] : null;
+            switch (args[i]) {
+                case "--games": config.games = Integer.parseInt(value); i++; break;
+                case "--seed": config.seed = Long.parseLong(value); i++; break;
+                case "--policy": config.policy = value; i++; break;
+                case "--max-ticks": config.maxTicks = Long.parseLong(value); i++; break;
+                case "--threads": config.threads = Integer.parseInt(value); i++; break;
+                case "--board": {
+                    String[] size = value.split("x");
+                    config.width = Integer.parseInt(size[0]);
+                    config.height = Integer.parseInt(size[1]);
+                    i++;
+                    break;
+                }
+                default:
+                    System.err.println("Usage: BatchSimulator [--games N] [--seed S] [--policy "
+                            + String.join("|", Policies.NAMES) + "] [--board WxH] [--max-ticks T] [--threads K]");
+                    System.exit(2);
+            }
+        }
+
+        long start = System.nanoTime();
+        BatchStats stats = run(config);
+        double seconds = (System.nanoTime() - start) / 1e9;
+        System.out.print(report(config, stats, seconds));
+    }
+
+    static String report(Config config, BatchStats stats, double seconds) {
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format(Locale.ROOT, "%d games, %dx%d, policy %s, seed %d, %d threads%n",
+                stats.games, config.width, config.height, config.policy, config.seed, config.threads));
+        sb.append(String.format(Locale.ROOT, "%.2f s: %.0f games/s, %.0f ticks/s%n",
+                seconds, stats.games / seconds, stats.totalTicks / seconds));
+        appendHistogram(sb, "score", stats.score);
+        appendHistogram(sb, "length", stats.length);
+        appendHistogram(sb, "ticks", stats.ticks);
+        sb.append("end   ");
+        for (int i = 0; i < stats.causes.length; i++) {
+            sb.append(String.format(Locale.ROOT, "  %s %.1f%%", BatchStats.CAUSE_NAMES[i],
+                    100.0 * stats.causes[i] / Math.max(1, stats.games)));
+        }
+        sb.append(String.format(Locale.ROOT, "%nfood per game: correct %.2f  wrong %.2f  bonus %.2f%n",
+                (double) stats.correctFoods / Math.max(1, stats.games),
+                (double) stats.wrongFoods / Math.max(1, stats.games),
+                (double) stats.bonusFoods / Math.max(1, stats.games)));
+        return sb.toString();
+    }
+
+    private static void appendHistogram(StringBuilder sb, String name, Histogram histogram) {
+        sb.append(String.format(Locale.ROOT, "%-6s mean %.1f  p50 %d  p90 %d  p99 %d  max %d%n", name,
+                histogram.getMean(), histogram.percentile(50), histogram.percentile(90),
+                histogram.percentile(99), histogram.getMax()));
+    }
+}
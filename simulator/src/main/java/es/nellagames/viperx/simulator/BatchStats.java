@@ -0,0 +1,66 @@
+package es.nellagames.viperx.simulator;
+
+import es.nellagames.viperx.engine.GameEngine;
+import es.nellagames.viperx.engine.Histogram;
+
+// Estadísticas de un lote de partidas. Cada hilo acumula en la suya (con su propio motor, que se
+// reutiliza entre partidas) y al final se suman con merge(): registrar no necesita sincronización.
+public final class BatchStats implements GameEngine.Listener {
+
+    // Causas de fin: las del motor más TIMEOUT (se alcanzó el máximo de ticks)
+    public static final int WALL = 0, SELF = 1, TIMEOUT = 2;
+    static final String[] CAUSE_NAMES = {"wall", "self", "timeout"};
+
+    final Histogram score = new Histogram(1, 500);
+    final Histogram length = new Histogram(1, 500);
+    final Histogram ticks = new Histogram(10, 10_000);
+    final long[] causes = new long[CAUSE_NAMES.length];
+    long games, totalTicks;
+    long correctFoods, wrongFoods, bonusFoods;
+
+    // Motor y política de este acumulador (solo los usa el hilo que lo tiene)
+    GameEngine engine;
+    InputPolicy policy;
+
+    void record(GameEngine engine, long gameTicks) {
+        games++;
+        totalTicks += gameTicks;
+        score.record(engine.getScore());
+        length.record(engine.getSnake().size());
+        ticks.record(gameTicks);
+        GameEngine.DeathCause cause = engine.getDeathCause();
+        causes[cause == null ? TIMEOUT : cause == GameEngine.DeathCause.WALL ? WALL : SELF]++;
+    }
+
+    public BatchStats merge(BatchStats other) {
+        score.merge(other.score);
+        length.merge(other.length);
+        ticks.merge(other.ticks);
+        for (int i = 0; i < causes.length; i++) causes[i] += other.causes[i];
+        games += other.games;
+        totalTicks += other.totalTicks;
+        correctFoods += other.correctFoods;
+        wrongFoods += other.wrongFoods;
+        bonusFoods += other.bonusFoods;
+        return this;
+    }
+
+    @Override
+    public void onCorrectFood(int score) { correctFoods++; }
+    @Override
+    public void onWrongFood(int score) { wrongFoods++; }
+    @Override
+    public void onBonusFood(int score) { bonusFoods++; }
+    @Override
+    public void onGameOver(int finalScore) {}
+
+    public long getGames() { return games; }
+    public long getTotalTicks() { return totalTicks; }
+    public long getCause(int cause) { return causes[cause]; }
+    public Histogram getScore() { return score; }
+    public Histogram getLength() { return length; }
+    public Histogram getTicks() { return ticks; }
+    public long getCorrectFoods() { return correctFoods; }
+    public long getWrongFoods() { return wrongFoods; }
+    public long getBonusFoods() { return bonusFoods; }
+}
@@ -0,0 +1,11 @@
+package es.nellagames.viperx.simulator;
+
+import es.nellagames.viperx.engine.Direction;
+import es.nellagames.viperx.engine.GameEngine;
+import es.nellagames.viperx.engine.GameRandom;
+
+// Decide el giro de cada tick de una partida simulada (null para seguir recto).
+// Cada partida usa su propia instancia y su propio generador, así que puede guardar estado.
+public interface InputPolicy {
+    Direction nextTurn(GameEngine engine, GameRandom random);
+}
@@ -0,0 +1,70 @@
+package es.nellagames.viperx.simulator;
+
+import es.nellagames.viperx.engine.Autopilot;
+import es.nellagames.viperx.engine.Direction;
+import es.nellagames.viperx.engine.GameEngine;
+import es.nellagames.viperx.engine.GameRandom;
+import es.nellagames.viperx.engine.OccupancyGrid;
+import es.nellagames.viperx.engine.SnakeBody;
+
+// Políticas de entrada disponibles por nombre en la línea de comandos
+public final class Policies {
+
+    public static final String[] NAMES = {"straight", "random", "safe", "autopilot"};
+
+    // Probabilidad de girar al azar en un tick
+    private static final int TURN_ONE_IN = 5;
+    private static final Direction[] HORIZONTAL = {Direction.LEFT, Direction.RIGHT};
+    private static final Direction[] VERTICAL = {Direction.UP, Direction.DOWN};
+
+    private Policies() {}
+
+    // Cada política pertenece a un hilo: autopilot guarda sus buffers de búsqueda entre ticks
+    public static InputPolicy create(String name) {
+        switch (name) {
+            case "straight":
+                // Sin entrada: mide la partida mínima (hasta la pared)
+                return (engine, random) -> null;
+            case "random":
+                return (engine, random) ->
+                        random.nextInt(TURN_ONE_IN) == 0 ? Direction.fromOrdinal(random.nextInt(4)) : null;
+            case "safe":
+                return Policies::safeTurn;
+            case "autopilot": {
+                // Va a por la respuesta correcta: partidas largas para pruebas de resistencia
+                Autopilot autopilot = new Autopilot();
+                return (engine, random) -> autopilot.nextTurn(engine);
+            }
+            default:
+                throw new IllegalArgumentException("Unknown policy: " + name);
+        }
+    }
+
+    // Sigue recto o gira al azar, pero nunca hacia una pared o la serpiente si hay alternativa:
+    // juega partidas largas sin buscar la comida, así se comen respuestas buenas y malas por igual
+    private static Direction safeTurn(GameEngine engine, GameRandom random) {
+        Direction current = engine.getDirection();
+        boolean wantsTurn = random.nextInt(TURN_ONE_IN) == 0;
+        if (!wantsTurn && isFree(engine, current)) return null;
+        Direction[] sides = perpendicular(current);
+        int first = random.nextInt(2);
+        for (int i = 0; i < 2; i++) {
+            Direction side = sides[(first + i) & 1];
+            if (isFree(engine, side)) return side;
+        }
+        return null;
+    }
+
+    private static boolean isFree(GameEngine engine, Direction direction) {
+        int head = engine.getSnake().head();
+        int x = SnakeBody.unpackX(head) + direction.dx;
+        int y = SnakeBody.unpackY(head) + direction.dy;
+        if (x < 0 || y < 0 || x >= engine.getWidth() || y >= engine.getHeight()) return false;
+        OccupancyGrid grid = engine.getGrid();
+        return grid.get(grid.index(x, y)) != OccupancyGrid.SNAKE;
+    }
+
+    private static Direction[] perpendicular(Direction direction) {
+        return direction.dx == 0 ? HORIZONTAL : VERTICAL;
+    }
+}
@@ -0,0 +1,34 @@
+package es.nellagames.viperx.simulator;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class BatchSimulatorTest {
+
+    @Test
+    public void resultsDoNotDependOnThreadCount() {
+        BatchSimulator.Config config = new BatchSimulator.Config();
+        config.games = 200;
+        config.seed = 3;
+        config.maxTicks = 2_000;
+        config.threads = 1;
+        BatchStats single = BatchSimulator.run(config);
+        config.threads = 4;
+        BatchStats parallel = BatchSimulator.run(config);
+
+        assertEquals(200, single.getGames());
+        assertEquals(single.getGames(), parallel.getGames());
+        assertEquals(single.getTotalTicks(), parallel.getTotalTicks());
+        assertEquals(single.getScore().getMean(), parallel.getScore().getMean(), 1e-9);
+        assertEquals(single.getCorrectFoods(), parallel.getCorrectFoods());
+        long ends = 0;
+        for (int cause = BatchStats.WALL; cause <= BatchStats.TIMEOUT; cause++) ends += parallel.getCause(cause);
+        assertEquals(200, ends);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void unknownPolicyFailsFast() {
+        Policies.create("nope");
+    }
+}